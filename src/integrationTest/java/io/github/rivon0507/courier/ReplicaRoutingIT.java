@@ -0,0 +1,100 @@
+package io.github.rivon0507.courier;
+
+import io.github.rivon0507.courier.auth.service.AuthService;
+import org.flywaydb.core.Flyway;
+import org.jspecify.annotations.NonNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.client.RestTestClient;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against two unrelated databases, the replica receiving no replication at all, so that whichever one a request
+ * reads from shows in the response.
+ */
+@IntegrationTest
+class ReplicaRoutingIT {
+    private static final PostgreSQLContainer replicaContainer = new PostgreSQLContainer(DockerImageName.parse("postgres:16"));
+    private static JdbcTemplate replica;
+
+    @Autowired
+    private RestTestClient restClient;
+    @Autowired
+    private AuthService authService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TestUtils.@NonNull AuthResult auth;
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        replicaContainer.start();
+        var dataSource = new DriverManagerDataSource(
+                replicaContainer.getJdbcUrl(), replicaContainer.getUsername(), replicaContainer.getPassword());
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        replica = new JdbcTemplate(dataSource);
+
+        registry.add("app.datasource.replica.url", replicaContainer::getJdbcUrl);
+        registry.add("app.datasource.replica.username", replicaContainer::getUsername);
+        registry.add("app.datasource.replica.password", replicaContainer::getPassword);
+    }
+
+    @BeforeEach
+    void setUp() {
+        authService.register("user@example.com", "password", "User", "");
+        auth = TestUtils.login(restClient);
+    }
+
+    @AfterEach
+    void tearDown() {
+        String truncate = """
+                TRUNCATE users, refresh_tokens, envoi, envoi_pieces, reception, reception_pieces, workspace
+                RESTART IDENTITY CASCADE""";
+        jdbcTemplate.execute(truncate);
+        replica.execute(truncate);
+    }
+
+    @Test
+    void writes_go_to_the_primary() {
+        TestUtils.createEnvoi(auth, restClient);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM envoi", Long.class)).isOne();
+        assertThat(replica.queryForObject("SELECT count(*) FROM envoi", Long.class)).isZero();
+    }
+
+    @Test
+    void read_only_endpoints_read_from_the_replica() {
+        long envoiId = TestUtils.createEnvoi(auth, restClient);
+
+        // Not on the replica yet
+        restClient.get().uri("/workspaces/%d/envois/%d".formatted(auth.workspaceId(), envoiId))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .exchange()
+                .expectStatus().isNotFound();
+
+        replica.update("""
+                INSERT INTO users (email, display_name, password_hash, role) VALUES ('user@example.com', 'User', '', 'USER')""");
+        replica.update("INSERT INTO workspace (id, owner_id) VALUES (?, 1)", auth.workspaceId());
+        replica.update("""
+                INSERT INTO envoi (id, reference, destinataire, date_envoi, workspace_id)
+                VALUES (?, 'REPLICA-1', 'replicated', '2025-12-25', ?)""", envoiId, auth.workspaceId());
+
+        restClient.get().uri("/workspaces/%d/envois/%d".formatted(auth.workspaceId(), envoiId))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .exchangeSuccessfully()
+                .expectBody().jsonPath("$.destinataire").isEqualTo("replicated");
+        restClient.get().uri("/workspaces/%d/envois?cursor=".formatted(auth.workspaceId()))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .exchangeSuccessfully()
+                .expectBody().jsonPath("$._items[0].reference").isEqualTo("REPLICA-1");
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.rivon0507.courier;
+
+import io.github.rivon0507.courier.auth.service.AuthService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.jspecify.annotations.NonNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upper bounds on the number of SQL statements each read endpoint runs, so that an association fetched eagerly again
+ * or a lazy one loaded in a loop shows up as a failure. The workspace ownership is granted from the access token's
+ * claim, so none of these statements is spent on it.
+ */
+@IntegrationTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class StatementCountIT {
+    private static final String PIECES = """
+            [{"designation": "des1", "quantite": 1}, {"designation": "des2", "quantite": 2}]""";
+
+    @Autowired
+    private RestTestClient restClient;
+    @Autowired
+    private AuthService authService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private TestUtils.@NonNull AuthResult auth;
+    private Statistics statistics;
+    private long envoiId;
+    private long receptionId;
+
+    @BeforeEach
+    void setUp() {
+        authService.register("user@example.com", "password", "User", "");
+        auth = TestUtils.login(restClient);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        envoiId = create("envois", "envoi", """
+                {"dateEnvoi": "2025-12-25", "destinataire": "dest", "pieces": %s}""".formatted(PIECES));
+        receptionId = create("receptions", "reception", """
+                {"dateReception": "2025-12-25", "expediteur": "exp", "reference": "REF", "pieces": %s}"""
+                .formatted(PIECES));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("""
+                TRUNCATE users, refresh_tokens, envoi, envoi_pieces, reception, reception_pieces, workspace
+                RESTART IDENTITY CASCADE""");
+    }
+
+    private long create(String collection, String field, String body) {
+        AtomicReference<Integer> id = new AtomicReference<>();
+        restClient.post().uri("/workspaces/%d/%s".formatted(auth.workspaceId(), collection))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .body(body)
+                .exchangeSuccessfully()
+                .expectBody().jsonPath("$.%s.id".formatted(field)).value(id::set);
+        return id.get();
+    }
+
+    private String resolve(String template) {
+        return template
+                .replace("{envoiId}", String.valueOf(envoiId))
+                .replace("{receptionId}", String.valueOf(receptionId));
+    }
+
+    private String uri(String path) {
+        return "/workspaces/%d/%s".formatted(auth.workspaceId(), resolve(path));
+    }
+
+    @ParameterizedTest(name = "GET {0} runs at most {1} statements")
+    @CsvSource({
+            "envois,                                 2",
+            "envois?cursor=,                         1",
+            "envois/{envoiId},                       1",
+            "envois/{envoiId}?include=pieces,        1",
+            "envois/{envoiId}/pieces,                3",
+            "receptions,                             2",
+            "receptions?cursor=,                     1",
+            "receptions/{receptionId},               1",
+            "receptions/{receptionId}?include=pieces, 1",
+            "receptions/{receptionId}/pieces,        3",
+    })
+    void read_endpoint_statement_count(String path, long maxStatements) {
+        statistics.clear();
+        restClient.get().uri(uri(path))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .exchangeSuccessfully();
+
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(maxStatements);
+    }
+
+    @ParameterizedTest(name = "POST {0} runs at most {2} statements")
+    @CsvSource({
+            "envois:batchGet,     {envoiId},     2",
+            "receptions:batchGet, {receptionId}, 2",
+    })
+    void batch_get_statement_count(String path, String id, long maxStatements) {
+        statistics.clear();
+        restClient.post().uri(uri(path))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .body("{\"ids\": [%s, 999]}".formatted(resolve(id)))
+                .exchangeSuccessfully();
+
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(maxStatements);
+    }
+}
@@ -23,6 +23,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.HttpStatus;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.client.RestTestClient;
 import org.springframework.transaction.support.TransactionTemplate;
@@ -33,6 +34,7 @@ import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
@@ -276,6 +278,20 @@ public class AuthControllerIT {
 
             assertThat(session1.getFamilyId()).isNotEqualTo(session2.getFamilyId());
         }
+
+        @Test
+        void login_with_hash_of_another_algorithm_upgrades_it() {
+            String outdatedHash = "{argon2@SpringSecurity_v5_8}"
+                                  + Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8().encode("password");
+            jdbcTemplate.update("UPDATE users SET password_hash = ? WHERE email = ?", outdatedHash, "user@example.com");
+
+            login("user@example.com", "password", "User");
+
+            String upgradedHash = jdbcTemplate.queryForObject(
+                    "SELECT password_hash FROM users WHERE email = ?", String.class, "user@example.com");
+            assertThat(upgradedHash).isNotEqualTo(outdatedHash).startsWith("{bcrypt}$2a$04$");
+            assertThat(passwordEncoder.matches("password", upgradedHash)).isTrue();
+        }
     }
 
     @Nested
@@ -449,6 +465,45 @@ public class AuthControllerIT {
                         .as("The most recent token should be marked as reused")
                         .isTrue();
             }
+
+            @Test
+            void concurrent_refreshes_of_the_same_token_rotate_it_once() throws Exception {
+                String loginToken = login("user@example.com", "password", "User").refreshToken;
+
+                int threads = 2;
+                var ready = new CountDownLatch(threads);
+                var start = new CountDownLatch(1);
+                List<Integer> statuses = Collections.synchronizedList(new ArrayList<>());
+
+                try (var pool = Executors.newFixedThreadPool(threads)) {
+                    List<Future<Void>> futures = new ArrayList<>();
+                    for (int i = 0; i < threads; i++) {
+                        CookieStore ownCookies = new BasicCookieStore();
+                        cookieStore.getCookies().forEach(ownCookies::addCookie);
+                        RestTestClient client = restTestClientFactory.apply(ownCookies);
+                        futures.add(pool.submit(() -> {
+                            ready.countDown();
+                            start.await();
+                            client.post().uri("/auth/refresh").exchange().expectStatus().value(statuses::add);
+                            return null;
+                        }));
+                    }
+
+                    assertThat(ready.await(2, TimeUnit.SECONDS)).isTrue();
+                    start.countDown();
+                    for (Future<Void> future : futures) future.get(5, TimeUnit.SECONDS);
+                }
+
+                assertThat(statuses).containsExactlyInAnyOrder(200, 401);
+                RefreshToken rotated = findTokenByHash(loginToken);
+                assertThat(rotated.getReplacedByTokenId())
+                        .as("The token should have been rotated by the winner only")
+                        .isNotNull();
+                assertThat(refreshTokenRepository.findAllByFamilyId(rotated.getFamilyId()))
+                        .as("The loser should be treated as a reuse of the rotated token")
+                        .hasSize(2)
+                        .allMatch(t -> t.getRevokedAt() != null);
+            }
         }
 
         @Nested
@@ -0,0 +1,60 @@
+package io.github.rivon0507.courier.auth;
+
+import io.github.rivon0507.courier.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+import java.util.Map;
+
+@IntegrationTest
+@TestPropertySource(properties = {
+        "app.security.rate-limit.enabled=true",
+        "app.security.rate-limit.login-per-email.capacity=2",
+        "app.security.rate-limit.login-per-email.refill-interval=1h",
+        "app.security.rate-limit.refresh-per-ip.capacity=2",
+        "app.security.rate-limit.refresh-per-ip.refill-interval=1h"
+})
+class AuthRateLimitIT {
+
+    @Autowired
+    private RestTestClient restClient;
+
+    @Test
+    void login_attempts_beyond_the_email_budget_get_429_with_retry_after() {
+        for (int i = 0; i < 2; i++) {
+            login("limited@example.com").expectStatus().isUnauthorized();
+        }
+
+        login("Limited@Example.com ")
+                .expectStatus().isEqualTo(429)
+                .expectHeader().exists(HttpHeaders.RETRY_AFTER)
+                .expectBody()
+                .jsonPath("$.code").isEqualTo("TOO_MANY_REQUESTS")
+                .jsonPath("$.status").isEqualTo(429);
+
+        login("other@example.com").expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void refreshes_beyond_the_address_budget_get_429() {
+        for (int i = 0; i < 2; i++) {
+            restClient.post().uri("/auth/refresh").exchange().expectStatus().isUnauthorized();
+        }
+
+        restClient.post().uri("/auth/refresh")
+                .exchange()
+                .expectStatus().isEqualTo(429)
+                .expectHeader().exists(HttpHeaders.RETRY_AFTER)
+                .expectBody()
+                .jsonPath("$.code").isEqualTo("TOO_MANY_REQUESTS");
+    }
+
+    private RestTestClient.ResponseSpec login(String email) {
+        return restClient.post().uri("/auth/login")
+                .body(Map.of("email", email, "password", "wrong-password"))
+                .exchange();
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.rivon0507.courier.auth;
+
+import io.github.rivon0507.courier.IntegrationTest;
+import io.github.rivon0507.courier.auth.domain.RefreshToken;
+import io.github.rivon0507.courier.auth.domain.RefreshTokenRepository;
+import io.github.rivon0507.courier.common.domain.Role;
+import io.github.rivon0507.courier.common.domain.User;
+import io.github.rivon0507.courier.common.domain.Workspace;
+import io.github.rivon0507.courier.common.persistence.UserRepository;
+import org.apache.hc.client5.http.cookie.BasicCookieStore;
+import org.apache.hc.client5.http.cookie.CookieStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@IntegrationTest
+@TestPropertySource(properties = "app.security.session.refresh-grace-window=10s")
+class RefreshGraceWindowIT {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private Function<CookieStore, RestTestClient> restTestClientFactory;
+
+    private final CookieStore cookieStore = new BasicCookieStore();
+
+    @BeforeEach
+    void setUp() {
+        var user = new User();
+        user.setEmail("user@example.com");
+        user.setDisplayName("User");
+        user.setPasswordHash(passwordEncoder.encode("password"));
+        user.setActive(true);
+        user.setRole(Role.USER);
+        Workspace workspace = new Workspace();
+        workspace.setOwner(user);
+        user.setDefaultWorkspace(workspace);
+        userRepository.save(user);
+
+        restTestClientFactory.apply(cookieStore).post().uri("/auth/login")
+                .body(Map.of("email", "user@example.com", "password", "password"))
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE users, refresh_tokens RESTART IDENTITY CASCADE");
+    }
+
+    @Test
+    void concurrent_refreshes_of_the_same_token_share_one_rotation() throws Exception {
+        int threads = 4;
+        var ready = new CountDownLatch(threads);
+        var start = new CountDownLatch(1);
+        List<String> refreshTokens = Collections.synchronizedList(new ArrayList<>());
+
+        try (var pool = Executors.newFixedThreadPool(threads)) {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                RestTestClient client = tab();
+                futures.add(pool.submit(() -> {
+                    ready.countDown();
+                    start.await();
+                    refreshTokens.add(refresh(client));
+                    return null;
+                }));
+            }
+
+            assertThat(ready.await(2, TimeUnit.SECONDS)).isTrue();
+            start.countDown();
+            for (Future<Void> future : futures) future.get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(refreshTokens).hasSize(threads).containsOnly(refreshTokens.getFirst());
+        assertFamilyWasRotatedOnce();
+    }
+
+    @Test
+    void token_presented_again_within_the_window_replays_the_rotation() {
+        String first = refresh(tab());
+        String second = refresh(tab());
+
+        assertThat(second).isEqualTo(first);
+        assertFamilyWasRotatedOnce();
+    }
+
+    private void assertFamilyWasRotatedOnce() {
+        List<RefreshToken> tokens = refreshTokenRepository.findAll();
+        assertThat(tokens).hasSize(2);
+        assertThat(tokens).filteredOn(RefreshToken::wasRotated).hasSize(1);
+        assertThat(tokens).filteredOn(t -> t.getRevokedAt() == null).hasSize(1);
+    }
+
+    /**
+     * A client holding a copy of the cookies set by the login, like a browser tab.
+     */
+    private RestTestClient tab() {
+        CookieStore tabCookies = new BasicCookieStore();
+        cookieStore.getCookies().forEach(tabCookies::addCookie);
+        return restTestClientFactory.apply(tabCookies);
+    }
+
+    private static String refresh(RestTestClient client) {
+        AtomicReference<String> refreshToken = new AtomicReference<>();
+        client.post().uri("/auth/refresh")
+                .exchange()
+                .expectStatus().isOk()
+                .expectCookie().value("refresh_token", refreshToken::set);
+        return refreshToken.get();
+    }
+}
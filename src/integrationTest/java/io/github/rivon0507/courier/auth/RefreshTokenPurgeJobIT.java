@@ -0,0 +1,87 @@
+package io.github.rivon0507.courier.auth;
+
+import io.github.rivon0507.courier.IntegrationTest;
+import io.github.rivon0507.courier.auth.service.RefreshTokenPurgeJob;
+import io.github.rivon0507.courier.common.domain.Role;
+import io.github.rivon0507.courier.common.domain.User;
+import io.github.rivon0507.courier.common.domain.Workspace;
+import io.github.rivon0507.courier.common.persistence.UserRepository;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@IntegrationTest
+class RefreshTokenPurgeJobIT {
+
+    @Autowired
+    private RefreshTokenPurgeJob purgeJob;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long userId;
+
+    @BeforeEach
+    void setUp() {
+        var user = new User();
+        user.setEmail("user@example.com");
+        user.setDisplayName("User");
+        user.setPasswordHash("hash");
+        user.setActive(true);
+        user.setRole(Role.USER);
+        Workspace workspace = new Workspace();
+        workspace.setOwner(user);
+        user.setDefaultWorkspace(workspace);
+        userId = userRepository.save(user).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE users, refresh_tokens RESTART IDENTITY CASCADE");
+    }
+
+    @Test
+    void purges_old_expired_and_revoked_tokens_but_keeps_rotated_ones_until_they_expire() {
+        Instant now = Instant.now();
+        Instant longAgo = now.minus(Duration.ofDays(8));
+        Instant recently = now.minus(Duration.ofDays(1));
+        Instant later = now.plus(Duration.ofDays(20));
+
+        UUID expiredLongAgo = insertToken(longAgo, null, null);
+        UUID loggedOutLongAgo = insertToken(later, longAgo, "LOGOUT");
+        UUID reusedLongAgo = insertToken(later, longAgo, "REUSE_DETECTED");
+        UUID rotatedLongAgo = insertToken(later, longAgo, "ROTATED");
+        UUID expiredRecently = insertToken(recently, null, null);
+        UUID loggedOutRecently = insertToken(later, recently, "LOGOUT");
+        UUID active = insertToken(later, null, null);
+
+        assertThat(purgeJob.purge()).isEqualTo(3);
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM refresh_tokens", UUID.class))
+                .doesNotContain(expiredLongAgo, loggedOutLongAgo, reusedLongAgo)
+                .containsExactlyInAnyOrder(rotatedLongAgo, expiredRecently, loggedOutRecently, active);
+    }
+
+    private UUID insertToken(Instant expiresAt, @Nullable Instant revokedAt, @Nullable String revokeReason) {
+        UUID id = UUID.randomUUID();
+        byte[] hash = id.toString().getBytes();
+        jdbcTemplate.update("""
+                        INSERT INTO refresh_tokens (id, user_id, token_hash, family_id, device_id, expires_at, revoked_at, revoke_reason)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                        """,
+                id, userId, hash, UUID.randomUUID(), UUID.randomUUID(), Timestamp.from(expiresAt),
+                revokedAt == null ? null : Timestamp.from(revokedAt), revokeReason);
+        return id;
+    }
+}
@@ -14,6 +14,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.client.RestTestClient;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 @IntegrationTest
@@ -113,6 +117,65 @@ public class EnvoiControllerIT {
                 .jsonPath("$._sort").exists();
     }
 
+    @Test
+    void get_page_without_total_returns_hasNext_instead_of_totals() {
+        for (int i = 0; i < 3; i++) TestUtils.createEnvoi(auth, restClient);
+        restClient.get().uri("/workspaces/%d/envois?withTotal=false&size=2".formatted(auth.workspaceId()))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .exchange().expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$._items.length()").isEqualTo(2)
+                .jsonPath("$._page.hasNext").isEqualTo(true)
+                .jsonPath("$._page.totalElements").doesNotExist()
+                .jsonPath("$._page.totalPages").doesNotExist();
+    }
+
+    @Test
+    void get_page_with_estimated_total_serves_the_exact_counter() {
+        for (int i = 0; i < 3; i++) TestUtils.createEnvoi(auth, restClient);
+        restClient.get().uri("/workspaces/%d/envois?withTotal=estimate&size=2".formatted(auth.workspaceId()))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .exchange().expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$._page.totalElements").isEqualTo(3)
+                .jsonPath("$._page.totalPages").isEqualTo(2)
+                .jsonPath("$._page.totalEstimated").isEqualTo(false);
+    }
+
+    @Test
+    void get_cursor_pages_walks_every_envoi_once() {
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) created.add(TestUtils.createEnvoi(auth, restClient));
+
+        List<Long> listed = new ArrayList<>();
+        AtomicReference<String> cursor = new AtomicReference<>("");
+        int pages = 0;
+        do {
+            List<Integer> ids = new ArrayList<>();
+            restClient.get().uri("/workspaces/%d/envois?cursor=%s&size=2".formatted(auth.workspaceId(), cursor.get()))
+                    .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                    .exchange().expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$._page.pageSize").isEqualTo(2)
+                    .jsonPath("$._page.totalElements").doesNotExist()
+                    .jsonPath("$._items[*].id").value((List<Integer> page) -> ids.addAll(page))
+                    .jsonPath("$._page.nextCursor").value(cursor::set);
+            ids.forEach(id -> listed.add(id.longValue()));
+            pages++;
+        } while (cursor.get() != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(listed).containsExactlyElementsOf(created);
+    }
+
+    @Test
+    void get_cursor_page_with_malformed_cursor_returns400() {
+        restClient.get().uri("/workspaces/%d/envois?cursor=%s".formatted(auth.workspaceId(), "garbage"))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .exchange().expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.code").isEqualTo("INVALID_CURSOR");
+    }
+
     @Test
     void get_one_with_nonexistent_envoi_id_returns404() {
         restClient.get().uri("/workspaces/%d/envois/%d".formatted(auth.workspaceId(), 999))
@@ -129,6 +192,89 @@ public class EnvoiControllerIT {
                 .expectBody().jsonPath("$.dateEnvoi").isEqualTo("2025-12-25");
     }
 
+    @Test
+    void get_one_with_pieces_returns_the_envoi_and_its_pieces() {
+        AtomicReference<Integer> envoiId = new AtomicReference<>();
+        restClient.post().uri("/workspaces/%d/envois".formatted(auth.workspaceId()))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .body("""
+                        {
+                          "dateEnvoi": "2025-12-25",
+                          "destinataire": "dest",
+                          "pieces": [
+                            {"designation": "des1", "quantite": 1},
+                            {"designation": "des2", "quantite": 2}
+                          ]
+                        }""")
+                .exchangeSuccessfully()
+                .expectBody().jsonPath("$.envoi.id").value(envoiId::set);
+
+        restClient.get().uri("/workspaces/%d/envois/%d?include=pieces".formatted(auth.workspaceId(), envoiId.get()))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .exchange().expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.envoi.id").isEqualTo(envoiId.get())
+                .jsonPath("$.envoi.dateEnvoi").isEqualTo("2025-12-25")
+                .jsonPath("$.pieces.length()").isEqualTo(2)
+                .jsonPath("$.pieces[0].designation").isEqualTo("des1")
+                .jsonPath("$.pieces[1].quantite").isEqualTo(2);
+    }
+
+    @Test
+    void get_one_with_pieces_of_envoi_without_pieces_returns_an_empty_list() {
+        long envoiId = TestUtils.createEnvoi(auth, restClient);
+        restClient.get().uri("/workspaces/%d/envois/%d?include=pieces".formatted(auth.workspaceId(), envoiId))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .exchange().expectStatus().isOk()
+                .expectBody().jsonPath("$.pieces").isEmpty();
+    }
+
+    @Test
+    void get_one_with_pieces_with_nonexistent_envoi_id_returns404() {
+        restClient.get().uri("/workspaces/%d/envois/%d?include=pieces".formatted(auth.workspaceId(), 999))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void batch_get_returns_the_requested_envois_with_their_pieces_in_order() {
+        long withoutPieces = TestUtils.createEnvoi(auth, restClient);
+        AtomicReference<Integer> withPieces = new AtomicReference<>();
+        restClient.post().uri("/workspaces/%d/envois".formatted(auth.workspaceId()))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .body("""
+                        {
+                          "dateEnvoi": "2025-12-26",
+                          "destinataire": "dest",
+                          "pieces": [
+                            {"designation": "des1", "quantite": 1},
+                            {"designation": "des2", "quantite": 2}
+                          ]
+                        }""")
+                .exchangeSuccessfully()
+                .expectBody().jsonPath("$.envoi.id").value(withPieces::set);
+
+        restClient.post().uri("/workspaces/%d/envois:batchGet".formatted(auth.workspaceId()))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .body("{\"ids\": [%d, 999, %d]}".formatted(withPieces.get(), withoutPieces))
+                .exchange().expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].envoi.id").isEqualTo(withPieces.get())
+                .jsonPath("$[0].pieces.length()").isEqualTo(2)
+                .jsonPath("$[0].pieces[0].designation").isEqualTo("des1")
+                .jsonPath("$[1].envoi.id").isEqualTo((int) withoutPieces)
+                .jsonPath("$[1].pieces").isEmpty();
+    }
+
+    @Test
+    void batch_get_without_ids_returns400() {
+        restClient.post().uri("/workspaces/%d/envois:batchGet".formatted(auth.workspaceId()))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .body("{\"ids\": []}")
+                .exchange().expectStatus().isBadRequest();
+    }
+
     @Test
     void update_alters_the_envoi() {
         long envoiId = TestUtils.createEnvoi(auth, restClient);
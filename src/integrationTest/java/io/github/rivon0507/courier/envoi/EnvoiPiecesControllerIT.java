@@ -7,6 +7,9 @@ import io.github.rivon0507.courier.common.api.PieceCreateRequest;
 import io.github.rivon0507.courier.common.persistence.UserRepository;
 import io.github.rivon0507.courier.envoi.persistence.EnvoiPieceRepository;
 import io.github.rivon0507.courier.envoi.persistence.EnvoiRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -18,6 +21,7 @@ import org.springframework.test.web.servlet.client.RestTestClient;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -36,6 +40,8 @@ public class EnvoiPiecesControllerIT {
     private EnvoiRepository envoiRepository;
     @Autowired
     private EnvoiPieceRepository pieceRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     private TestUtils.AuthResult auth;
 
@@ -75,6 +81,28 @@ public class EnvoiPiecesControllerIT {
         assertThat(pieceRepository.count()).as("Two pieces should have been inserted").isEqualTo(2);
     }
 
+    @Test
+    void create_500_pieces_uses_batched_inserts() {
+        long envoiId = TestUtils.createEnvoi(auth, restClient);
+        String body = IntStream.range(0, 500)
+                .mapToObj("{\"designation\": \"p%d\", \"quantite\": 1}"::formatted)
+                .collect(Collectors.joining(",", "[", "]"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        restClient.post().uri("/workspaces/%d/envois/%d/pieces".formatted(auth.workspaceId(), envoiId))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .body(body)
+                .exchange().expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(500);
+
+        long preparedStatements = statistics.getPrepareStatementCount();
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(500);
+        // 10 batches of 50 INSERTs and 10 sequence calls, plus the lookups of the envoi and its pieces
+        assertThat(preparedStatements).as("Prepared statements").isLessThan(40);
+        assertThat(pieceRepository.count()).isEqualTo(500);
+    }
+
     @Test
     void create_empty_list_returns_200_and_inserts_nothing() {
         long envoiId = TestUtils.createEnvoi(auth, restClient);
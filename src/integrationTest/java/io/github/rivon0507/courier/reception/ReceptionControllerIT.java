@@ -14,6 +14,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.client.RestTestClient;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 @IntegrationTest
@@ -121,6 +123,89 @@ public class ReceptionControllerIT {
                 .expectBody().jsonPath("$.dateReception").isEqualTo("2025-12-25");
     }
 
+    @Test
+    void get_one_with_pieces_returns_the_reception_and_its_pieces() {
+        AtomicReference<Integer> receptionId = new AtomicReference<>();
+        restClient.post().uri("/workspaces/%d/receptions".formatted(auth.workspaceId()))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .body("""
+                        {
+                          "dateReception": "2025-12-25",
+                          "expediteur": "exp", "reference": "REF",
+                          "pieces": [
+                            {"designation": "des1", "quantite": 1},
+                            {"designation": "des2", "quantite": 2}
+                          ]
+                        }""")
+                .exchangeSuccessfully()
+                .expectBody().jsonPath("$.reception.id").value(receptionId::set);
+
+        restClient.get().uri("/workspaces/%d/receptions/%d?include=pieces".formatted(auth.workspaceId(), receptionId.get()))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .exchange().expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.reception.id").isEqualTo(receptionId.get())
+                .jsonPath("$.reception.dateReception").isEqualTo("2025-12-25")
+                .jsonPath("$.pieces.length()").isEqualTo(2)
+                .jsonPath("$.pieces[0].designation").isEqualTo("des1")
+                .jsonPath("$.pieces[1].quantite").isEqualTo(2);
+    }
+
+    @Test
+    void get_one_with_pieces_of_reception_without_pieces_returns_an_empty_list() {
+        long receptionId = TestUtils.createReception(auth, restClient);
+        restClient.get().uri("/workspaces/%d/receptions/%d?include=pieces".formatted(auth.workspaceId(), receptionId))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .exchange().expectStatus().isOk()
+                .expectBody().jsonPath("$.pieces").isEmpty();
+    }
+
+    @Test
+    void get_one_with_pieces_with_nonexistent_reception_id_returns404() {
+        restClient.get().uri("/workspaces/%d/receptions/%d?include=pieces".formatted(auth.workspaceId(), 999))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void batch_get_returns_the_requested_receptions_with_their_pieces_in_order() {
+        long withoutPieces = TestUtils.createReception(auth, restClient);
+        AtomicReference<Integer> withPieces = new AtomicReference<>();
+        restClient.post().uri("/workspaces/%d/receptions".formatted(auth.workspaceId()))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .body("""
+                        {
+                          "dateReception": "2025-12-26",
+                          "expediteur": "exp", "reference": "REF",
+                          "pieces": [
+                            {"designation": "des1", "quantite": 1},
+                            {"designation": "des2", "quantite": 2}
+                          ]
+                        }""")
+                .exchangeSuccessfully()
+                .expectBody().jsonPath("$.reception.id").value(withPieces::set);
+
+        restClient.post().uri("/workspaces/%d/receptions:batchGet".formatted(auth.workspaceId()))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .body("{\"ids\": [%d, 999, %d]}".formatted(withPieces.get(), withoutPieces))
+                .exchange().expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].reception.id").isEqualTo(withPieces.get())
+                .jsonPath("$[0].pieces.length()").isEqualTo(2)
+                .jsonPath("$[0].pieces[0].designation").isEqualTo("des1")
+                .jsonPath("$[1].reception.id").isEqualTo((int) withoutPieces)
+                .jsonPath("$[1].pieces").isEmpty();
+    }
+
+    @Test
+    void batch_get_without_ids_returns400() {
+        restClient.post().uri("/workspaces/%d/receptions:batchGet".formatted(auth.workspaceId()))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .body("{\"ids\": []}")
+                .exchange().expectStatus().isBadRequest();
+    }
+
     @Test
     void update_alters_the_reception() {
         long receptionId = TestUtils.createReception(auth, restClient);
@@ -0,0 +1,125 @@
+package io.github.rivon0507.courier.workspace;
+
+import io.github.rivon0507.courier.IntegrationTest;
+import io.github.rivon0507.courier.TestUtils;
+import io.github.rivon0507.courier.auth.service.AuthService;
+import io.github.rivon0507.courier.common.persistence.UserRepository;
+import org.jspecify.annotations.NonNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@IntegrationTest
+public class WorkspaceStatsControllerIT {
+    @Autowired
+    private RestTestClient restClient;
+    @Autowired
+    private AuthService authService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserRepository userRepository;
+
+    private TestUtils.@NonNull AuthResult auth;
+
+    @BeforeEach
+    void setUp() {
+        authService.register("user@example.com", "password", "User", "");
+        authService.register("newUser@example.com", "password", "User", "");
+        auth = TestUtils.login(restClient);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("""
+                TRUNCATE users, refresh_tokens, envoi, envoi_pieces, reception, reception_pieces, workspace
+                RESTART IDENTITY CASCADE""");
+    }
+
+    @Test
+    void new_workspace_has_zero_stats() {
+        assertStats(0, 0, 0, 0);
+    }
+
+    @Test
+    void stats_follow_creations_updates_and_deletions() {
+        long envoiId = TestUtils.createEnvoi(auth, restClient);
+        long receptionId = TestUtils.createReception(auth, restClient);
+        assertStats(1, 1, 0, 0);
+
+        List<Integer> pieceIds = new ArrayList<>();
+        restClient.post().uri("/workspaces/%d/envois/%d/pieces".formatted(auth.workspaceId(), envoiId))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .body("""
+                        [{"designation": "a", "quantite": 2}, {"designation": "b", "quantite": 3}]
+                        """)
+                .exchangeSuccessfully()
+                .expectBody().jsonPath("$[*].id").value((List<Integer> ids) -> pieceIds.addAll(ids));
+        restClient.post().uri("/workspaces/%d/receptions/%d/pieces".formatted(auth.workspaceId(), receptionId))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .body("""
+                        [{"designation": "c", "quantite": 4}]
+                        """)
+                .exchangeSuccessfully();
+        assertStats(1, 1, 3, 9);
+
+        restClient.put().uri("/workspaces/%d/envois/%d/pieces".formatted(auth.workspaceId(), envoiId))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .body("""
+                        [{"id": %d, "designation": "a", "quantite": 10}]
+                        """.formatted(pieceIds.getFirst()))
+                .exchangeSuccessfully();
+        assertStats(1, 1, 3, 17);
+
+        restClient.delete().uri("/workspaces/%d/envois/%d/pieces?ids=%d".formatted(auth.workspaceId(), envoiId, pieceIds.getLast()))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .exchangeSuccessfully();
+        assertStats(1, 1, 2, 14);
+
+        long emptyEnvoiId = TestUtils.createEnvoi(auth, restClient);
+        assertStats(2, 1, 2, 14);
+        restClient.delete().uri("/workspaces/%d/envois/%d".formatted(auth.workspaceId(), emptyEnvoiId))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .exchangeSuccessfully();
+        assertStats(1, 1, 2, 14);
+    }
+
+    @Test
+    void envoi_listing_total_comes_from_the_counters() {
+        TestUtils.createEnvoi(auth, restClient);
+        TestUtils.createEnvoi(auth, restClient);
+        restClient.get().uri("/workspaces/%d/envois?size=1".formatted(auth.workspaceId()))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .exchange().expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$._page.totalElements").isEqualTo(2)
+                .jsonPath("$._page.totalPages").isEqualTo(2)
+                .jsonPath("$._page.hasNext").isEqualTo(true);
+    }
+
+    @Test
+    void stats_of_workspace_not_owned_by_user_returns_404() {
+        long notMyWorkspace = userRepository.findUserByEmail("newUser@example.com").orElseThrow()
+                .getDefaultWorkspace().getId();
+        restClient.get().uri("/workspaces/%d/stats".formatted(notMyWorkspace))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .exchange().expectStatus().isNotFound();
+    }
+
+    private void assertStats(long envois, long receptions, long pieces, long quantite) {
+        restClient.get().uri("/workspaces/%d/stats".formatted(auth.workspaceId()))
+                .header("Authorization", "Bearer %s".formatted(auth.accessToken()))
+                .exchange().expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.envoiCount").isEqualTo(envois)
+                .jsonPath("$.receptionCount").isEqualTo(receptions)
+                .jsonPath("$.pieceCount").isEqualTo(pieces)
+                .jsonPath("$.totalQuantite").isEqualTo(quantite);
+    }
+}
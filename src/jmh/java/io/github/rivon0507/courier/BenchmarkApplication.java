@@ -0,0 +1,121 @@
+package io.github.rivon0507.courier;
+
+import io.github.rivon0507.courier.auth.service.AuthService;
+import io.github.rivon0507.courier.auth.service.AuthSessionResult;
+import io.github.rivon0507.courier.common.persistence.UserRepository;
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the courier application for JMH benchmarks.
+ *
+ * <p>When Docker is available, the application runs against a PostgreSQL Testcontainer with the Flyway migrations
+ * applied, which is the closest thing to production. Otherwise, it falls back to an in-memory H2 database in
+ * PostgreSQL mode with the schema generated by Hibernate; numbers measured that way are only comparable with each
+ * other.
+ */
+public final class BenchmarkApplication implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+    private final @Nullable PostgreSQLContainer postgres;
+
+    private BenchmarkApplication(ConfigurableApplicationContext context, @Nullable PostgreSQLContainer postgres) {
+        this.context = context;
+        this.postgres = postgres;
+    }
+
+    /**
+     * Starts the application.
+     *
+     * @param properties additional {@code key=value} properties, taking precedence over the benchmark settings
+     * @return the running application
+     */
+    public static BenchmarkApplication start(String... properties) {
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("server.port", "0");
+        settings.put("app.security.cors.allowed-origins", "http://localhost");
+        settings.put("logging.level.root", "WARN");
+        settings.put("logging.level.io.github.rivon0507", "WARN");
+
+        PostgreSQLContainer postgres = null;
+        if (DockerClientFactory.instance().isDockerAvailable()) {
+            postgres = new PostgreSQLContainer(DockerImageName.parse("postgres:16"));
+            postgres.start();
+            settings.put("spring.datasource.url", postgres.getJdbcUrl());
+            settings.put("spring.datasource.username", postgres.getUsername());
+            settings.put("spring.datasource.password", postgres.getPassword());
+        } else {
+            settings.put("spring.datasource.url", "jdbc:h2:mem:courier;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+            settings.put("spring.datasource.username", "sa");
+            settings.put("spring.datasource.password", "");
+            settings.put("spring.flyway.enabled", "false");
+            settings.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+            // Database-side defaults that Flyway would otherwise create
+            settings.put("spring.jpa.properties.hibernate.hbm2ddl.import_files", "benchmark-h2.sql");
+        }
+
+        for (String property : properties) {
+            int separator = property.indexOf('=');
+            settings.put(property.substring(0, separator), property.substring(separator + 1));
+        }
+
+        // Passed as command line arguments so that they take precedence over application.yml
+        List<String> args = new ArrayList<>();
+        settings.forEach((key, value) -> args.add("--%s=%s".formatted(key, value)));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                CourierApplication.class,
+                BenchmarkJwtConfiguration.class
+        ).run(args.toArray(String[]::new));
+        return new BenchmarkApplication(context, postgres);
+    }
+
+    /**
+     * Whether the application runs against PostgreSQL, as opposed to the H2 fallback.
+     */
+    public boolean runsOnPostgres() {
+        return postgres != null;
+    }
+
+    /**
+     * Resolves a path against the address the embedded server listens on.
+     */
+    public URI uri(String path) {
+        return URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + path);
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Registers a user through {@link AuthService}, like a real client would.
+     *
+     * @param email the email of the user to register
+     * @return the ids needed to call the workspace-scoped services, and an access token to call them over HTTP
+     */
+    public BenchmarkUser registerUser(String email) {
+        AuthSessionResult result = bean(AuthService.class).register(email, "password", "Benchmark", null);
+        long userId = bean(UserRepository.class).findUserByEmail(email).orElseThrow().getId();
+        return new BenchmarkUser(userId, result.response().workspaceId(), result.response().accessToken());
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        if (postgres != null) postgres.stop();
+    }
+
+    public record BenchmarkUser(long userId, long workspaceId, String accessToken) {
+    }
+}
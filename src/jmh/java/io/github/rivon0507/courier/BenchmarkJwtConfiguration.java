@@ -0,0 +1,53 @@
+package io.github.rivon0507.courier;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.RSAKey;
+import io.github.rivon0507.courier.security.JwtKeys;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+
+/**
+ * In-memory RSA key pair for benchmarks, so that no key files need to be configured.
+ */
+@Configuration(proxyBeanMethods = false)
+public class BenchmarkJwtConfiguration {
+
+    @Bean
+    public KeyPair benchmarkRsaKeyPair() throws NoSuchAlgorithmException {
+        KeyPairGenerator g = KeyPairGenerator.getInstance("RSA");
+        g.initialize(2048);
+        return g.generateKeyPair();
+    }
+
+    @Bean
+    @Primary
+    public JwtDecoder benchmarkJwtDecoder(KeyPair benchmarkRsaKeyPair) {
+        return JwtKeys.decoder(benchmarkJwk(benchmarkRsaKeyPair).toPublicJWK());
+    }
+
+    @Bean
+    @Primary
+    public JwtEncoder benchmarkJwtEncoder(KeyPair benchmarkRsaKeyPair) {
+        return JwtKeys.encoder(benchmarkJwk(benchmarkRsaKeyPair));
+    }
+
+    /**
+     * Built the way {@link io.github.rivon0507.courier.security.configuration.SecurityConfiguration} builds the
+     * configured key, so that benchmarks sign and verify like the application does.
+     */
+    private static JWK benchmarkJwk(KeyPair keyPair) {
+        return JwtKeys.forAlgorithm(SignatureAlgorithm.RS256, new RSAKey.Builder((RSAPublicKey) keyPair.getPublic())
+                .privateKey((RSAPrivateKey) keyPair.getPrivate())
+                .build());
+    }
+}
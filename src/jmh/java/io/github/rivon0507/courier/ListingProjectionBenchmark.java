@@ -0,0 +1,121 @@
+package io.github.rivon0507.courier;
+
+import io.github.rivon0507.courier.BenchmarkApplication.BenchmarkUser;
+import io.github.rivon0507.courier.envoi.api.EnvoiCreateRequest;
+import io.github.rivon0507.courier.envoi.api.EnvoiResponse;
+import io.github.rivon0507.courier.envoi.domain.Envoi;
+import io.github.rivon0507.courier.envoi.persistence.EnvoiRepository;
+import io.github.rivon0507.courier.envoi.service.EnvoiMapper;
+import io.github.rivon0507.courier.envoi.service.EnvoiService;
+import io.github.rivon0507.courier.reception.api.ReceptionCreateRequest;
+import io.github.rivon0507.courier.reception.api.ReceptionResponse;
+import io.github.rivon0507.courier.reception.domain.Reception;
+import io.github.rivon0507.courier.reception.persistence.ReceptionRepository;
+import io.github.rivon0507.courier.reception.service.ReceptionMapper;
+import io.github.rivon0507.courier.reception.service.ReceptionService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of loading a page of 100 envois or receptions as managed entities mapped to responses, the way the listings
+ * used to, compared with the constructor-expression projections they use now.
+ *
+ * <p>Run with {@code ./gradlew jmh -PjmhIncludes=ListingProjectionBenchmark} and the GC profiler, and compare the
+ * allocation per page ({@code gc.alloc.rate.norm}) of the {@code entities} and {@code projection} variants.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ListingProjectionBenchmark {
+
+    private static final int SEEDED_ROWS = 1_000;
+    private static final int PAGE_SIZE = 100;
+
+    private BenchmarkApplication app;
+    private BenchmarkUser user;
+    private EntityManagerFactory entityManagerFactory;
+    private EnvoiRepository envoiRepository;
+    private EnvoiMapper envoiMapper;
+    private ReceptionRepository receptionRepository;
+    private ReceptionMapper receptionMapper;
+    private Pageable envoiPage;
+    private Pageable receptionPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = BenchmarkApplication.start();
+        user = app.registerUser("listing-benchmark@example.com");
+        entityManagerFactory = app.bean(EntityManagerFactory.class);
+        envoiRepository = app.bean(EnvoiRepository.class);
+        envoiMapper = app.bean(EnvoiMapper.class);
+        receptionRepository = app.bean(ReceptionRepository.class);
+        receptionMapper = app.bean(ReceptionMapper.class);
+
+        EnvoiService envoiService = app.bean(EnvoiService.class);
+        ReceptionService receptionService = app.bean(ReceptionService.class);
+        LocalDate date = LocalDate.of(2025, 12, 25);
+        for (int i = 0; i < SEEDED_ROWS; i++) {
+            envoiService.create(new EnvoiCreateRequest(null, "Direction régionale", "Transmission de pièces",
+                    date, List.of()), user.workspaceId(), user.userId());
+            receptionService.create(new ReceptionCreateRequest("REF-%d".formatted(i), "Préfecture", date, List.of()),
+                    user.workspaceId(), user.userId());
+        }
+        envoiPage = PageRequest.of(0, PAGE_SIZE, Sort.by("dateEnvoi"));
+        receptionPage = PageRequest.of(0, PAGE_SIZE, Sort.by("dateReception"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public List<EnvoiResponse> envoiEntities() {
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            return entityManager.createQuery(
+                            "select e from Envoi e where e.workspace.id = :workspaceId order by e.dateEnvoi", Envoi.class)
+                    .setParameter("workspaceId", user.workspaceId())
+                    .setMaxResults(PAGE_SIZE + 1)
+                    .getResultStream()
+                    .limit(PAGE_SIZE)
+                    .map(envoiMapper::toResponse)
+                    .toList();
+        }
+    }
+
+    @Benchmark
+    public List<EnvoiResponse> envoiProjection() {
+        return envoiRepository.findSliceByWorkspace_Id(user.workspaceId(), envoiPage).getContent();
+    }
+
+    @Benchmark
+    public List<ReceptionResponse> receptionEntities() {
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            return entityManager.createQuery(
+                            "select r from Reception r where r.workspace.id = :workspaceId order by r.dateReception",
+                            Reception.class)
+                    .setParameter("workspaceId", user.workspaceId())
+                    .setMaxResults(PAGE_SIZE + 1)
+                    .getResultStream()
+                    .limit(PAGE_SIZE)
+                    .map(receptionMapper::toResponse)
+                    .toList();
+        }
+    }
+
+    @Benchmark
+    public List<ReceptionResponse> receptionProjection() {
+        return receptionRepository.findSliceByWorkspace_Id(user.workspaceId(), receptionPage).getContent();
+    }
+}
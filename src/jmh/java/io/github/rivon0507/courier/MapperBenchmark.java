@@ -0,0 +1,112 @@
+package io.github.rivon0507.courier;
+
+import io.github.rivon0507.courier.common.api.PieceCreateRequest;
+import io.github.rivon0507.courier.common.api.PieceResponse;
+import io.github.rivon0507.courier.common.domain.Piece;
+import io.github.rivon0507.courier.envoi.api.EnvoiDetailsResponse;
+import io.github.rivon0507.courier.envoi.api.EnvoiResponse;
+import io.github.rivon0507.courier.envoi.domain.Envoi;
+import io.github.rivon0507.courier.envoi.domain.EnvoiPiece;
+import io.github.rivon0507.courier.envoi.service.EnvoiMapper;
+import io.github.rivon0507.courier.envoi.service.EnvoiMapperImpl;
+import io.github.rivon0507.courier.envoi.service.EnvoiPieceMapperImpl;
+import io.github.rivon0507.courier.reception.domain.ReceptionPiece;
+import io.github.rivon0507.courier.reception.service.ReceptionPieceMapper;
+import io.github.rivon0507.courier.reception.service.ReceptionPieceMapperImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and allocation of the MapStruct mappers used on the envoi and reception hot paths.
+ *
+ * <p>The mappers are wired by a bare Spring context (no database), the same way the application wires them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"10", "100"})
+    int pieceCount;
+
+    private AnnotationConfigApplicationContext context;
+    private EnvoiMapper envoiMapper;
+    private ReceptionPieceMapper receptionPieceMapper;
+    private Envoi envoi;
+    private List<ReceptionPiece> receptionPieces;
+    private PieceCreateRequest pieceCreateRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(
+                EnvoiMapperImpl.class,
+                EnvoiPieceMapperImpl.class,
+                ReceptionPieceMapperImpl.class
+        );
+        envoiMapper = context.getBean(EnvoiMapper.class);
+        receptionPieceMapper = context.getBean(ReceptionPieceMapper.class);
+
+        envoi = new Envoi();
+        envoi.setId(1L);
+        envoi.setReference("ENVOI-1");
+        envoi.setDestinataire("Direction régionale");
+        envoi.setObservation("Transmission de pièces");
+        envoi.setDateEnvoi(LocalDate.of(2025, 12, 25));
+        List<EnvoiPiece> envoiPieces = new ArrayList<>(pieceCount);
+        receptionPieces = new ArrayList<>(pieceCount);
+        for (int i = 0; i < pieceCount; i++) {
+            EnvoiPiece envoiPiece = new EnvoiPiece();
+            fill(envoiPiece, i);
+            envoiPiece.setEnvoi(envoi);
+            envoiPieces.add(envoiPiece);
+
+            ReceptionPiece receptionPiece = new ReceptionPiece();
+            fill(receptionPiece, i);
+            receptionPieces.add(receptionPiece);
+        }
+        envoi.setPieces(envoiPieces);
+        pieceCreateRequest = new PieceCreateRequest("Bordereau", 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public EnvoiResponse envoiToResponse() {
+        return envoiMapper.toResponse(envoi);
+    }
+
+    @Benchmark
+    public EnvoiDetailsResponse envoiToDetailsResponse() {
+        return envoiMapper.toDetailsResponse(envoi);
+    }
+
+    @Benchmark
+    public List<PieceResponse> receptionPiecesToResponseList() {
+        return receptionPieceMapper.toResponseList(receptionPieces);
+    }
+
+    @Benchmark
+    public ReceptionPiece receptionPieceFromCreateRequest() {
+        return receptionPieceMapper.fromPieceCreateRequest(pieceCreateRequest);
+    }
+
+    private static void fill(Piece piece, int index) {
+        piece.setId((long) index);
+        piece.setDesignation("Pièce %d".formatted(index));
+        piece.setQuantite(1 + index % 5);
+        piece.setCreatedAt(Instant.EPOCH);
+        piece.setUpdatedAt(Instant.EPOCH);
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.rivon0507.courier.auth;
+
+import io.github.rivon0507.courier.BenchmarkApplication;
+import io.github.rivon0507.courier.auth.service.AuthService;
+import io.github.rivon0507.courier.auth.service.AuthSessionResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency distribution of refresh token rotation under 50 concurrent callers, database round trips and access token
+ * signing included.
+ *
+ * <p>Every thread holds its own session of the same user and rotates it on each invocation, so the callers compete
+ * for connections and for the {@code refresh_tokens} table and index, but never for the same row: two parallel
+ * rotations of the very same token are a reuse by definition and end the session after the first one.
+ *
+ * <p>Run with {@code ./gradlew jmh -PjmhIncludes=RefreshRotationBenchmark} and read the {@code p0.99} percentile.
+ * Rotation is a PostgreSQL-specific statement, so this benchmark needs Docker.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(50)
+@Fork(1)
+public class RefreshRotationBenchmark {
+
+    private static final String EMAIL = "refresh-benchmark@example.com";
+
+    @State(Scope.Benchmark)
+    public static class Application {
+        BenchmarkApplication app;
+        AuthService authService;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            app = BenchmarkApplication.start();
+            if (!app.runsOnPostgres()) {
+                app.close();
+                throw new IllegalStateException("RefreshRotationBenchmark needs Docker to run against PostgreSQL");
+            }
+            authService = app.bean(AuthService.class);
+            app.registerUser(EMAIL);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            app.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+        String refreshToken;
+        String deviceId;
+
+        @Setup(Level.Trial)
+        public void login(Application application) {
+            AuthSessionResult result = application.authService.login(EMAIL, "password", null);
+            refreshToken = result.cookies().refreshToken();
+            deviceId = result.cookies().deviceId();
+        }
+    }
+
+    @Benchmark
+    public AuthSessionResult refresh(Application application, Session session) {
+        AuthSessionResult result = application.authService.refreshSession(session.refreshToken, session.deviceId);
+        session.refreshToken = result.cookies().refreshToken();
+        return result;
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.rivon0507.courier.envoi;
+
+import io.github.rivon0507.courier.BenchmarkApplication;
+import io.github.rivon0507.courier.BenchmarkApplication.BenchmarkUser;
+import io.github.rivon0507.courier.common.api.PieceCreateRequest;
+import io.github.rivon0507.courier.envoi.api.EnvoiCreateRequest;
+import io.github.rivon0507.courier.envoi.service.EnvoiService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@code GET /workspaces/{id}/envois} over HTTP under 400 concurrent clients, with requests handled by
+ * Tomcat's platform thread pool or by virtual threads (the {@code virtual-threads} profile).
+ *
+ * <p>Both modes share the same connection pool size, so that the comparison is about how waiting requests are
+ * parked, not about how many reach PostgreSQL. Admission control is disabled, otherwise the run would measure its
+ * limit rather than the threading model; any response other than 200 fails the run.
+ *
+ * <p>Run with {@code ./gradlew jmh -PjmhIncludes=EnvoiListingLoadBenchmark} and compare the percentiles of both
+ * {@code threading} values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Threads(400)
+@Fork(1)
+public class EnvoiListingLoadBenchmark {
+
+    private static final int SEEDED_ENVOIS = 100;
+    private static final String POOL_SIZE = "20";
+
+    @Param({"platform", "virtual"})
+    String threading;
+
+    private BenchmarkApplication app;
+    private HttpClient client;
+    private HttpRequest listing;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> properties = new ArrayList<>(List.of(
+                "app.admission-control.enabled=false",
+                "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                "spring.datasource.hikari.connection-timeout=30s"));
+        if (threading.equals("virtual")) properties.add("spring.profiles.active=virtual-threads");
+        app = BenchmarkApplication.start(properties.toArray(String[]::new));
+        BenchmarkUser user = app.registerUser("envoi-load-benchmark@example.com");
+        EnvoiService envoiService = app.bean(EnvoiService.class);
+        EnvoiCreateRequest createRequest = new EnvoiCreateRequest(
+                null,
+                "Direction régionale",
+                "Transmission de pièces",
+                LocalDate.of(2025, 12, 25),
+                List.of(new PieceCreateRequest("Bordereau", 1))
+        );
+        for (int i = 0; i < SEEDED_ENVOIS; i++) {
+            envoiService.create(createRequest, user.workspaceId(), user.userId());
+        }
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        listing = HttpRequest.newBuilder(app.uri("/workspaces/%d/envois?size=20".formatted(user.workspaceId())))
+                .header("Authorization", "Bearer " + user.accessToken())
+                .GET()
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        app.close();
+    }
+
+    @Benchmark
+    public String getPage() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(listing, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET %s returned %d".formatted(listing.uri(), response.statusCode()));
+        }
+        return response.body();
+    }
+}
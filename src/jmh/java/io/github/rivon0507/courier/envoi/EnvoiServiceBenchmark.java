@@ -0,0 +1,78 @@
+package io.github.rivon0507.courier.envoi;
+
+import io.github.rivon0507.courier.BenchmarkApplication;
+import io.github.rivon0507.courier.BenchmarkApplication.BenchmarkUser;
+import io.github.rivon0507.courier.common.api.PieceCreateRequest;
+import io.github.rivon0507.courier.common.pagination.PagedResponse;
+import io.github.rivon0507.courier.common.pagination.TotalMode;
+import io.github.rivon0507.courier.envoi.api.EnvoiCreateRequest;
+import io.github.rivon0507.courier.envoi.api.EnvoiDetailsResponse;
+import io.github.rivon0507.courier.envoi.api.EnvoiResponse;
+import io.github.rivon0507.courier.envoi.service.EnvoiService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the envoi listing and creation paths, database round trips included.
+ *
+ * <p>Run with {@code ./gradlew jmh -PjmhIncludes=EnvoiServiceBenchmark}; the GC profiler reports the allocation rate
+ * per operation ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EnvoiServiceBenchmark {
+
+    private static final int SEEDED_ENVOIS = 1_000;
+
+    @Param({"10", "100"})
+    int pageSize;
+
+    private BenchmarkApplication app;
+    private EnvoiService envoiService;
+    private BenchmarkUser user;
+    private Pageable page;
+    private EnvoiCreateRequest createRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = BenchmarkApplication.start();
+        envoiService = app.bean(EnvoiService.class);
+        user = app.registerUser("envoi-benchmark@example.com");
+        createRequest = new EnvoiCreateRequest(
+                null,
+                "Direction régionale",
+                "Transmission de pièces",
+                LocalDate.of(2025, 12, 25),
+                List.of(new PieceCreateRequest("Bordereau", 1), new PieceCreateRequest("Facture", 3))
+        );
+        for (int i = 0; i < SEEDED_ENVOIS; i++) {
+            envoiService.create(createRequest, user.workspaceId(), user.userId());
+        }
+        page = PageRequest.of(0, pageSize, Sort.by("dateEnvoi"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public PagedResponse<EnvoiResponse> getPage() {
+        return envoiService.getPage(page, TotalMode.EXACT, user.workspaceId(), user.userId());
+    }
+
+    @Benchmark
+    public EnvoiDetailsResponse create() {
+        return envoiService.create(createRequest, user.workspaceId(), user.userId());
+    }
+}
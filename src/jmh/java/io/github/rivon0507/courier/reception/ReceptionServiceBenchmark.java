@@ -0,0 +1,75 @@
+package io.github.rivon0507.courier.reception;
+
+import io.github.rivon0507.courier.BenchmarkApplication;
+import io.github.rivon0507.courier.BenchmarkApplication.BenchmarkUser;
+import io.github.rivon0507.courier.common.api.PieceCreateRequest;
+import io.github.rivon0507.courier.common.api.PieceResponse;
+import io.github.rivon0507.courier.common.api.PieceUpdateRequest;
+import io.github.rivon0507.courier.reception.api.ReceptionCreateRequest;
+import io.github.rivon0507.courier.reception.api.ReceptionDetailsResponse;
+import io.github.rivon0507.courier.reception.service.ReceptionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Throughput of the bulk piece update of a reception, database round trips included.
+ *
+ * <p>Every invocation alternates between two sets of values so that each call really dirties the pieces.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReceptionServiceBenchmark {
+
+    @Param({"10", "100"})
+    int pieceCount;
+
+    private BenchmarkApplication app;
+    private ReceptionService receptionService;
+    private BenchmarkUser user;
+    private long receptionId;
+    private List<PieceUpdateRequest> evenUpdate;
+    private List<PieceUpdateRequest> oddUpdate;
+    private long invocations;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = BenchmarkApplication.start();
+        receptionService = app.bean(ReceptionService.class);
+        user = app.registerUser("reception-benchmark@example.com");
+
+        List<PieceCreateRequest> pieces = IntStream.range(0, pieceCount)
+                .mapToObj(i -> new PieceCreateRequest("Pièce %d".formatted(i), 1))
+                .toList();
+        ReceptionDetailsResponse created = receptionService.create(
+                new ReceptionCreateRequest("REF-BENCH", "Préfecture", LocalDate.of(2025, 12, 25), pieces),
+                user.workspaceId(),
+                user.userId()
+        );
+        receptionId = created.reception().id();
+        evenUpdate = created.pieces().stream()
+                .map(p -> new PieceUpdateRequest(p.id(), p.designation(), 2))
+                .toList();
+        oddUpdate = created.pieces().stream()
+                .map(p -> new PieceUpdateRequest(p.id(), p.designation() + " (copie)", 3))
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public List<PieceResponse> updatePieces() {
+        List<PieceUpdateRequest> request = (invocations++ & 1) == 0 ? evenUpdate : oddUpdate;
+        return receptionService.updatePieces(receptionId, request, user.workspaceId(), user.userId());
+    }
+}
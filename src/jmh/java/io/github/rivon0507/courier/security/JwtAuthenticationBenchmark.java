@@ -0,0 +1,103 @@
+package io.github.rivon0507.courier.security;
+
+import com.nimbusds.jose.jwk.RSAKey;
+import io.github.rivon0507.courier.security.configuration.JwtCacheProperties;
+import io.github.rivon0507.courier.security.configuration.SecurityConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.*;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU cost of authenticating the bearer token of a {@code /workspaces/**} request, with and without the cache of
+ * verified tokens ({@code app.security.jwt-cache}).
+ *
+ * <p>Requests cycle through the tokens of 1000 clients, each reusing its access token like a browser does during the
+ * token's lifetime; the cache is large enough to hold all of them.
+ *
+ * <p>Run with {@code ./gradlew jmh -PjmhIncludes=JwtAuthenticationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private static final int CLIENTS = 1000;
+
+    @Param({"false", "true"})
+    boolean cache;
+
+    private AuthenticationManager manager;
+    private String[] tokens;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        KeyPairGenerator g = KeyPairGenerator.getInstance("RSA");
+        g.initialize(2048);
+        KeyPair keyPair = g.generateKeyPair();
+        var key = JwtKeys.forAlgorithm(SignatureAlgorithm.RS256, new RSAKey.Builder((RSAPublicKey) keyPair.getPublic())
+                .privateKey((RSAPrivateKey) keyPair.getPrivate())
+                .build());
+        JwtEncoder encoder = JwtKeys.encoder(key);
+        JwtDecoder decoder = JwtKeys.decoder(key.toPublicJWK());
+        Converter<Jwt, ? extends AbstractAuthenticationToken> converter =
+                new SecurityConfiguration().jwtAuthenticationConverter();
+
+        if (cache) {
+            manager = new CachingJwtAuthenticationManager(
+                    decoder, converter, new JwtCacheProperties(true, 10_000), new SimpleMeterRegistry());
+        } else {
+            JwtAuthenticationProvider provider = new JwtAuthenticationProvider(decoder);
+            provider.setJwtAuthenticationConverter(converter);
+            manager = new ProviderManager(provider);
+        }
+
+        Instant now = Instant.now();
+        JwsHeader header = JwsHeader.with(SignatureAlgorithm.RS256).build();
+        tokens = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            JwtClaimsSet claims = JwtClaimsSet.builder()
+                    .issuer("courier")
+                    .issuedAt(now)
+                    .expiresAt(now.plusSeconds(3600))
+                    .subject("user-" + i + "@example.com")
+                    .claim("scope", "ROLE_USER")
+                    .claim("roles", new String[]{"USER"})
+                    .claim("name", "User " + i)
+                    .claim("userId", (long) i)
+                    .claim("workspaces", List.of((long) i))
+                    .build();
+            tokens[i] = encoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+        }
+    }
+
+    @Benchmark
+    public Authentication authenticate(Cursor cursor) {
+        String token = tokens[cursor.next];
+        cursor.next = (cursor.next + 1) % CLIENTS;
+        return manager.authenticate(new BearerTokenAuthenticationToken(token));
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.rivon0507.courier.security;
+
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.RSAKey;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.*;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of signing an access token, paid at every login and refresh, and of verifying one, paid by every
+ * {@code /workspaces/**} request, for each supported key type.
+ *
+ * <p>Run with {@code ./gradlew jmh -PjmhIncludes=JwtSigningBenchmark}. RSA verification is much cheaper than RSA
+ * signing, while ES256 signs faster than it verifies: the choice of
+ * {@code app.security.jwt.algorithm} mostly matters for the {@code verify} score.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class JwtSigningBenchmark {
+
+    @Param({"RS256", "ES256"})
+    String algorithm;
+
+    private JwtEncoder encoder;
+    private JwtDecoder decoder;
+    private JwsHeader header;
+    private JwtClaimsSet claims;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm.from(algorithm);
+        JWK key = JwtKeys.forAlgorithm(signatureAlgorithm, generateKey(signatureAlgorithm));
+        encoder = JwtKeys.encoder(key);
+        decoder = JwtKeys.decoder(key.toPublicJWK());
+        header = JwsHeader.with(signatureAlgorithm).build();
+
+        Instant now = Instant.now();
+        // Same shape as the access tokens issued by AuthService
+        claims = JwtClaimsSet.builder()
+                .issuer("courier")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(3600))
+                .subject("benchmark@example.com")
+                .claim("scope", "ROLE_USER")
+                .claim("roles", new String[]{"USER"})
+                .claim("name", "Benchmark User")
+                .claim("userId", 1L)
+                .claim("workspaces", List.of(1L, 2L, 3L))
+                .build();
+        token = sign().getTokenValue();
+    }
+
+    private static JWK generateKey(SignatureAlgorithm algorithm) throws Exception {
+        if (algorithm == SignatureAlgorithm.ES256) {
+            KeyPairGenerator g = KeyPairGenerator.getInstance("EC");
+            g.initialize(new ECGenParameterSpec("secp256r1"));
+            KeyPair keyPair = g.generateKeyPair();
+            return new ECKey.Builder(Curve.P_256, (ECPublicKey) keyPair.getPublic())
+                    .privateKey((ECPrivateKey) keyPair.getPrivate())
+                    .build();
+        }
+        KeyPairGenerator g = KeyPairGenerator.getInstance("RSA");
+        g.initialize(2048);
+        KeyPair keyPair = g.generateKeyPair();
+        return new RSAKey.Builder((RSAPublicKey) keyPair.getPublic())
+                .privateKey((RSAPrivateKey) keyPair.getPrivate())
+                .build();
+    }
+
+    @Benchmark
+    public Jwt sign() {
+        return encoder.encode(JwtEncoderParameters.from(header, claims));
+    }
+
+    @Benchmark
+    public Jwt verify() {
+        return decoder.decode(token);
+    }
+}
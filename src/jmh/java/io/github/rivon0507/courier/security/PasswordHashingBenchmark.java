@@ -0,0 +1,45 @@
+package io.github.rivon0507.courier.security;
+
+import io.github.rivon0507.courier.security.configuration.PasswordHashingProperties;
+import io.github.rivon0507.courier.security.configuration.PasswordHashingProperties.Algorithm;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU cost of verifying a password at login, for each hashing setting, i.e. how much a login costs before any
+ * database access.
+ *
+ * <p>Run with {@code ./gradlew jmh -PjmhIncludes=PasswordHashingBenchmark} and pick the
+ * {@code app.security.password-hashing} settings whose score fits the login latency budget.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    @Param({"bcrypt-10", "bcrypt-11", "bcrypt-12", "bcrypt-13", "argon2"})
+    String setting;
+
+    private PasswordEncoder encoder;
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Algorithm algorithm = setting.equals("argon2") ? Algorithm.ARGON2 : Algorithm.BCRYPT;
+        int strength = algorithm == Algorithm.BCRYPT ? Integer.parseInt(setting.substring("bcrypt-".length())) : 10;
+        encoder = PasswordEncoders.create(new PasswordHashingProperties(
+                algorithm, strength, Duration.ZERO, 1, 1, Duration.ofSeconds(5)));
+        hash = encoder.encode("correct horse battery staple");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("correct horse battery staple", hash);
+    }
+}
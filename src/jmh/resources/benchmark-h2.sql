@@ -0,0 +1,2 @@
+CREATE SEQUENCE envoi_reference_seq;
+ALTER TABLE envoi ALTER COLUMN reference SET DEFAULT 'ENVOI-' || nextval('envoi_reference_seq');
@@ -3,9 +3,11 @@ package io.github.rivon0507.courier.auth;
 import io.github.rivon0507.courier.auth.api.AuthenticationResponse;
 import io.github.rivon0507.courier.auth.api.LoginRequest;
 import io.github.rivon0507.courier.auth.api.RegisterRequest;
+import io.github.rivon0507.courier.auth.service.AuthRateLimiter;
 import io.github.rivon0507.courier.auth.service.AuthService;
 import io.github.rivon0507.courier.auth.service.AuthSessionResult;
 import io.github.rivon0507.courier.security.configuration.SessionProperties;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.NonNull;
@@ -29,12 +31,15 @@ class AuthController {
 
     private final AuthService authService;
     private final SessionProperties sessionProperties;
+    private final AuthRateLimiter authRateLimiter;
 
     @PostMapping("/login")
     public ResponseEntity<AuthenticationResponse> login(
             @Valid @RequestBody LoginRequest loginRequest,
-            @CookieValue(name = "device_id", required = false) @Nullable String deviceId) {
+            @CookieValue(name = "device_id", required = false) @Nullable String deviceId,
+            HttpServletRequest request) {
 
+        authRateLimiter.checkLogin(loginRequest.email(), request.getRemoteAddr());
         AuthSessionResult result = authService.login(loginRequest.email(), loginRequest.password(), deviceId);
         HttpHeaders cookieHeaders = buildAuthSessionHeaders(result, deviceId);
         return ResponseEntity.ok()
@@ -66,8 +71,10 @@ class AuthController {
     @PostMapping("/refresh")
     public ResponseEntity<AuthenticationResponse> refreshSession(
             @CookieValue(name = "refresh_token", required = false) @Nullable String refreshToken,
-            @CookieValue(name = "device_id", required = false) @Nullable String deviceId) {
+            @CookieValue(name = "device_id", required = false) @Nullable String deviceId,
+            HttpServletRequest request) {
 
+        authRateLimiter.checkRefresh(request.getRemoteAddr());
         AuthSessionResult result = authService.refreshSession(refreshToken, deviceId);
         ResponseCookie refreshTokenCookie = buildRefreshTokenCookieFrom(result);
         return ResponseEntity.ok()
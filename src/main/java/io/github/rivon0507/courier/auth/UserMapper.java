@@ -1,6 +1,7 @@
 package io.github.rivon0507.courier.auth;
 
 import io.github.rivon0507.courier.auth.api.UserDto;
+import io.github.rivon0507.courier.auth.domain.RotatedSession;
 import io.github.rivon0507.courier.common.domain.Role;
 import io.github.rivon0507.courier.common.domain.User;
 import io.github.rivon0507.courier.security.AppUserPrincipal;
@@ -20,6 +21,10 @@ public interface UserMapper {
     @Mapping(target = "defaultWorkspaceId", source = "user.defaultWorkspace.id")
     AppUserPrincipal toUserPrincipal(User user);
 
+    @Mapping(target = "id", source = "userId")
+    @Mapping(target = "passwordHash", ignore = true)
+    AppUserPrincipal toUserPrincipal(RotatedSession session);
+
     UserDto toUserDto(User user);
 
     UserDto principalToUserDto(AppUserPrincipal principal);
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
@@ -15,6 +16,52 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
 
+    /**
+     * Unlocked lookup, used to explain why a token could not be rotated.
+     */
+    Optional<RefreshToken> findOneByTokenHash(byte[] tokenHash);
+
+    /**
+     * Rotates an active refresh token in a single statement and its own short transaction: the token is revoked as
+     * {@link RefreshToken.RevokeReason#ROTATED} only if it is still active for the given device, and its sibling is
+     * inserted in the same family with the same expiry. The owner of the token is read by the same statement.
+     * <p>
+     * Concurrent rotations of the same token only wait for each other for the duration of the statement: the loser
+     * re-evaluates {@code revoked_at IS NULL} once the winner commits and rotates nothing.
+     *
+     * @return the owner of the token, empty if the token is unknown, bound to another device, expired or already
+     * revoked
+     */
+    @Transactional
+    @Query(value = """
+            WITH rotated AS (
+                UPDATE refresh_tokens
+                SET revoked_at = :now,
+                    revoke_reason = 'ROTATED',
+                    replaced_by_token_id = :newTokenId
+                WHERE token_hash = :tokenHash
+                  AND device_id = :deviceId
+                  AND revoked_at IS NULL
+                  AND expires_at > :now
+                RETURNING user_id, family_id, device_id, expires_at
+            ),
+            issued AS (
+                INSERT INTO refresh_tokens (id, user_id, token_hash, family_id, device_id, expires_at, created_at)
+                SELECT :newTokenId, user_id, :newTokenHash, family_id, device_id, expires_at, :now
+                FROM rotated
+                RETURNING user_id
+            )
+            SELECT u.id                   AS "userId",
+                   u.email                AS "email",
+                   u.display_name         AS "displayName",
+                   u.role                 AS "role",
+                   u.is_active            AS "active",
+                   u.default_workspace_id AS "defaultWorkspaceId"
+            FROM issued
+            JOIN users u ON u.id = issued.user_id
+            """, nativeQuery = true)
+    Optional<RotatedSession> rotate(byte[] tokenHash, UUID deviceId, UUID newTokenId, byte[] newTokenHash, Instant now);
+
     List<RefreshToken> findAllByFamilyId(UUID familyId);
 
     @Modifying
@@ -38,4 +85,27 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID
               and t.revokedAt is null
             """)
     void revokeActiveByFamilyId(UUID familyId, Instant now, RefreshToken.RevokeReason reason);
+
+    /**
+     * Deletes up to {@code batchSize} tokens that expired before the horizon, or were revoked before it for another
+     * reason than a rotation. Rotated tokens are kept until they expire: presenting one is how reuse is detected.
+     * <p>
+     * Rows locked by a concurrent rotation or purge are skipped, so that each batch only holds its own locks, briefly.
+     *
+     * @return the number of deleted tokens
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM refresh_tokens
+            WHERE id IN (
+                SELECT id
+                FROM refresh_tokens
+                WHERE expires_at < :horizon
+                   OR (revoked_at < :horizon AND revoke_reason <> 'ROTATED')
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED
+            )
+            """, nativeQuery = true)
+    int deletePurgeable(Instant horizon, int batchSize);
 }
@@ -0,0 +1,19 @@
+package io.github.rivon0507.courier.auth.domain;
+
+/**
+ * Projection returned by {@link RefreshTokenRepository#rotate}: the owner of the rotated token, with the columns
+ * needed to build its principal, so that a refresh does not load the user separately.
+ */
+public interface RotatedSession {
+    Long getUserId();
+
+    String getEmail();
+
+    String getDisplayName();
+
+    String getRole();
+
+    boolean isActive();
+
+    Long getDefaultWorkspaceId();
+}
@@ -0,0 +1,31 @@
+package io.github.rivon0507.courier.auth.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the rate limits of the login and refresh endpoints. Bound to properties under the prefix
+ * `app.security.rate-limit`.
+ *
+ * @param enabled      whether the limits are enforced
+ * @param maxKeys      the maximum number of emails or client addresses tracked per limit
+ * @param loginPerEmail login attempts for one email, whatever the client address
+ * @param loginPerIp    login attempts from one client address, whatever the email
+ * @param refreshPerIp  refreshes from one client address
+ */
+@ConfigurationProperties(prefix = "app.security.rate-limit")
+public record AuthRateLimitProperties(
+        boolean enabled,
+        long maxKeys,
+        Bucket loginPerEmail,
+        Bucket loginPerIp,
+        Bucket refreshPerIp
+) {
+    /**
+     * @param capacity       how many requests can be made in a burst
+     * @param refillInterval how long it takes for one more request to be allowed
+     */
+    public record Bucket(int capacity, Duration refillInterval) {
+    }
+}
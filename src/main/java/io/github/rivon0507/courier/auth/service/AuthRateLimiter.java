@@ -0,0 +1,80 @@
+package io.github.rivon0507.courier.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.rivon0507.courier.auth.web.error.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Rate limits of the login and refresh endpoints, the former being the most CPU-expensive request the service
+ * handles because of password hashing.
+ *
+ * <p>A login attempt takes a token from the bucket of the client address, then from the bucket of the email, so that
+ * both spraying one password over many accounts and hammering one account from many addresses are slowed down. A
+ * refresh takes a token from the bucket of the client address.
+ *
+ * <p>Buckets live in bounded caches of {@link AuthRateLimitProperties#maxKeys()} entries each, dropped once idle long
+ * enough to be full again. Rejections are counted by {@code auth.rate_limit.rejected}, tagged with the limit.
+ */
+@Component
+public class AuthRateLimiter {
+
+    private final boolean enabled;
+    private final Limit loginPerEmail;
+    private final Limit loginPerIp;
+    private final Limit refreshPerIp;
+
+    public AuthRateLimiter(AuthRateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        this.loginPerEmail = new Limit("login_email", properties.loginPerEmail(), properties.maxKeys(), meterRegistry);
+        this.loginPerIp = new Limit("login_ip", properties.loginPerIp(), properties.maxKeys(), meterRegistry);
+        this.refreshPerIp = new Limit("refresh_ip", properties.refreshPerIp(), properties.maxKeys(), meterRegistry);
+    }
+
+    /**
+     * @throws TooManyRequestsException if the client address or the email ran out of login attempts
+     */
+    public void checkLogin(String email, String clientAddress) {
+        if (!enabled) return;
+        loginPerIp.consume(clientAddress);
+        loginPerEmail.consume(email.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @throws TooManyRequestsException if the client address ran out of refreshes
+     */
+    public void checkRefresh(String clientAddress) {
+        if (!enabled) return;
+        refreshPerIp.consume(clientAddress);
+    }
+
+    private static final class Limit {
+        private final AuthRateLimitProperties.Bucket bucket;
+        private final Cache<String, TokenBucket> buckets;
+        private final Counter rejected;
+
+        Limit(String name, AuthRateLimitProperties.Bucket bucket, long maxKeys, MeterRegistry meterRegistry) {
+            this.bucket = bucket;
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(bucket.refillInterval().multipliedBy(bucket.capacity()))
+                    .build();
+            this.rejected = Counter.builder("auth.rate_limit.rejected")
+                    .tag("limit", name)
+                    .register(meterRegistry);
+        }
+
+        void consume(String key) {
+            long now = System.nanoTime();
+            long waitNanos = buckets.get(key, k -> new TokenBucket(bucket, now)).tryConsume(now);
+            if (waitNanos == 0) return;
+            rejected.increment();
+            throw new TooManyRequestsException(Duration.ofNanos(waitNanos));
+        }
+    }
+}
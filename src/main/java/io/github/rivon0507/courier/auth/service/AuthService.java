@@ -12,7 +12,9 @@ import io.github.rivon0507.courier.common.domain.Role;
 import io.github.rivon0507.courier.common.domain.User;
 import io.github.rivon0507.courier.common.domain.Workspace;
 import io.github.rivon0507.courier.common.persistence.UserRepository;
+import io.github.rivon0507.courier.common.persistence.WorkspaceRepository;
 import io.github.rivon0507.courier.security.AppUserPrincipal;
+import io.github.rivon0507.courier.security.WorkspaceClaimVerifier;
 import io.github.rivon0507.courier.security.configuration.JwtProperties;
 import io.github.rivon0507.courier.security.configuration.SessionProperties;
 import lombok.RequiredArgsConstructor;
@@ -26,16 +28,19 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.JwsHeader;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -50,18 +55,23 @@ public class AuthService {
     private final JwtProperties jwtProperties;
     private final PasswordEncoder passwordEncoder;
     private final UserRepository userRepository;
+    private final WorkspaceRepository workspaceRepository;
     private final UserMapper userMapper;
     private final RefreshTokenRepository refreshTokenRepository;
     private final RefreshTokenHasher refreshTokenHasher;
     private final RefreshTokenMapper refreshTokenMapper;
     private final SessionProperties sessionProperties;
     private final SessionRevocationService sessionRevocationService;
+    private final RefreshGraceCache refreshGraceCache;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Controller should pass the device_id cookie if present. If absent, we create a new one.
      * This method revokes any currently active session(s) for that device_id to prevent "dangling" tokens.
+     * <p>
+     * The password is verified before the transaction starts: it waits for the password hashing executor, and must
+     * not hold a database connection while doing so.
      */
-    @Transactional
     public AuthSessionResult login(@NonNull String username, @NonNull String password, @Nullable String deviceId) {
         UUID deviceUuid = ensureDeviceId(deviceId);
         Authentication authenticated;
@@ -74,19 +84,25 @@ public class AuthService {
         }
         Objects.requireNonNull(authenticated.getPrincipal(), "Authenticated principal must not be null");
         AppUserPrincipal principal = (AppUserPrincipal) authenticated.getPrincipal();
-        Jwt jwt = encodeAccessToken(principal);
 
-        revokeActiveByDevice(deviceUuid);
-        String refreshToken = issueRefreshToken(principal.id(), deviceUuid);
-        AuthenticationResponse response = toAuthResponse(jwt, principal);
+        return transactionTemplate.execute(status -> {
+            Jwt jwt = encodeAccessToken(principal, workspaceRepository.findIdsByOwnerId(principal.id()));
 
-        return new AuthSessionResult(
-                response,
-                new AuthSessionResult.RefreshCookies(refreshToken, deviceUuid.toString())
-        );
+            revokeActiveByDevice(deviceUuid);
+            String refreshToken = issueRefreshToken(principal.id(), deviceUuid);
+            AuthenticationResponse response = toAuthResponse(jwt, principal);
+
+            return new AuthSessionResult(
+                    response,
+                    new AuthSessionResult.RefreshCookies(refreshToken, deviceUuid.toString())
+            );
+        });
     }
 
-    @Transactional
+    /**
+     * Creates the user and its default workspace, and opens a session for it. As in
+     * {@link #login(String, String, String)}, the password is hashed before the transaction starts.
+     */
     public AuthSessionResult register(@NonNull String email,
                                       @NonNull String password,
                                       @NonNull String displayName,
@@ -94,29 +110,32 @@ public class AuthService {
         UUID deviceUuid = ensureDeviceId(deviceId);
         User user = userMapper.from(email, displayName, Role.USER);
         user.setPasswordHash(passwordEncoder.encode(password));
-        User saved;
-        try {
-            saved = userRepository.save(user);
-        } catch (DataIntegrityViolationException e) {
-             if (e.getLocalizedMessage().contains(UNIQUE_EMAIL_CONSTRAINT)) throw new EmailAlreadyTakenException();
-            throw e;
-        }
 
-        Workspace defaultWorkspace = new Workspace();
-        defaultWorkspace.setOwner(saved);
-        saved.setDefaultWorkspace(defaultWorkspace);
-        userRepository.save(saved);
+        return transactionTemplate.execute(status -> {
+            User saved;
+            try {
+                saved = userRepository.save(user);
+            } catch (DataIntegrityViolationException e) {
+                if (e.getLocalizedMessage().contains(UNIQUE_EMAIL_CONSTRAINT)) throw new EmailAlreadyTakenException();
+                throw e;
+            }
 
-        AppUserPrincipal principal = userMapper.toUserPrincipal(saved);
-        Jwt jwt = encodeAccessToken(principal);
+            Workspace defaultWorkspace = new Workspace();
+            defaultWorkspace.setOwner(saved);
+            saved.setDefaultWorkspace(defaultWorkspace);
+            userRepository.save(saved);
 
-        revokeActiveByDevice(deviceUuid);
-        String refreshToken = issueRefreshToken(saved.getId(), deviceUuid);
+            AppUserPrincipal principal = userMapper.toUserPrincipal(saved);
+            Jwt jwt = encodeAccessToken(principal, List.of(principal.defaultWorkspaceId()));
 
-        return new AuthSessionResult(
-                toAuthResponse(jwt, principal),
-                new AuthSessionResult.RefreshCookies(refreshToken, deviceUuid.toString())
-        );
+            revokeActiveByDevice(deviceUuid);
+            String refreshToken = issueRefreshToken(saved.getId(), deviceUuid);
+
+            return new AuthSessionResult(
+                    toAuthResponse(jwt, principal),
+                    new AuthSessionResult.RefreshCookies(refreshToken, deviceUuid.toString())
+            );
+        });
     }
 
     /**
@@ -129,46 +148,37 @@ public class AuthService {
      * - token not found / mismatched device / expired / revoked => 401
      * <p>
      * - revoked+ROTATED => reuse detection => revoke all active tokens in family with REUSE_DETECTED => 401
+     * <p>
+     * - token presented again within the grace window of its rotation => result of the rotation replayed from
+     * {@link RefreshGraceCache}, or 401 without reuse detection if that result is no longer cached
+     * <p>
+     * Not transactional: the rotation is a single conditional statement committed on its own (see
+     * {@link RefreshTokenRepository#rotate}), which also reads the owner of the token, so no row lock is held while
+     * the access token is signed.
      */
-    @Transactional
     public AuthSessionResult refreshSession(@Nullable String refreshToken, @Nullable String deviceId) {
         if (deviceId == null) throw new InvalidSessionException("device_id is null");
         UUID deviceUuid = parseDeviceId(deviceId);
         if (refreshToken == null) throw new InvalidSessionException("refresh_token is null or blank");
 
         byte[] tokenHash = refreshTokenHasher.hash(refreshToken);
-        RefreshToken t1 = refreshTokenRepository.findByTokenHash(tokenHash)
-                .orElseThrow(() -> new InvalidSessionException("Refresh token does not exist in DB"));
+        return refreshGraceCache.getOrRotate(tokenHash, deviceUuid, () -> rotate(tokenHash, deviceUuid));
+    }
 
-        if (!t1.getDeviceId().equals(deviceUuid)) throw new InvalidSessionException("device_id did not match the refresh token's");
+    private AuthSessionResult rotate(byte[] tokenHash, UUID deviceId) {
         Instant now = Instant.now(clock);
-        if (t1.isExpired(now)) throw new InvalidSessionException("refresh_token has expired");
-
-        if (t1.getRevokedAt() != null) {
-            if (t1.wasRotated() || t1.wasReused()) {
-                sessionRevocationService.revokeFamilyOfReusedToken(t1.getFamilyId(), now);
-                throw new InvalidSessionException("refresh_token reuse detected", "REFRESH_TOKEN_REUSED");
-            }
-            throw new InvalidSessionException("refresh_token was revoked");
-        }
-
         String rawToken = UUID.randomUUID().toString();
-        RefreshToken token = refreshTokenMapper.fromSiblingTokenAndHash(t1, refreshTokenHasher.hash(rawToken));
-        RefreshToken saved = refreshTokenRepository.save(token);
-
-        t1.revokeAsRotated(now, saved.getId());
-        refreshTokenRepository.save(t1);
-
-        AppUserPrincipal principal = userRepository.findById(saved.getUserId())
+        AppUserPrincipal principal = refreshTokenRepository
+                .rotate(tokenHash, deviceId, UUID.randomUUID(), refreshTokenHasher.hash(rawToken), now)
                 .map(userMapper::toUserPrincipal)
-                .orElseThrow(() -> new InvalidSessionException("user not found for refresh_token"));
+                .orElseThrow(() -> rejectRefresh(tokenHash, deviceId, now));
 
-        Jwt jwt = encodeAccessToken(principal);
+        Jwt jwt = encodeAccessToken(principal, workspaceRepository.findIdsByOwnerId(principal.id()));
         AuthenticationResponse response = toAuthResponse(jwt, principal);
 
         return new AuthSessionResult(
                 response,
-                new AuthSessionResult.RefreshCookies(rawToken, deviceUuid.toString())
+                new AuthSessionResult.RefreshCookies(rawToken, deviceId.toString())
         );
     }
 
@@ -237,6 +247,27 @@ public class AuthService {
         }
     }
 
+    /**
+     * Explains why a refresh token could not be rotated, revoking its family when the token was already rotated
+     * outside the grace window.
+     *
+     * @return the exception to throw
+     */
+    private InvalidSessionException rejectRefresh(byte[] tokenHash, UUID deviceId, Instant now) {
+        RefreshToken token = refreshTokenRepository.findOneByTokenHash(tokenHash).orElse(null);
+        if (token == null) return new InvalidSessionException("Refresh token does not exist in DB");
+        if (!token.getDeviceId().equals(deviceId)) return new InvalidSessionException("device_id did not match the refresh token's");
+        if (token.isExpired(now)) return new InvalidSessionException("refresh_token has expired");
+        if (token.wasRotated() && refreshGraceCache.isWithinGraceWindow(token.getRevokedAt(), now)) {
+            return new InvalidSessionException("refresh_token was just rotated by a concurrent request");
+        }
+        if (token.wasRotated() || token.wasReused()) {
+            sessionRevocationService.revokeFamilyOfReusedToken(token.getFamilyId(), now);
+            return new InvalidSessionException("refresh_token reuse detected", "REFRESH_TOKEN_REUSED");
+        }
+        return new InvalidSessionException("refresh_token was revoked");
+    }
+
     private void revokeActiveByDevice(UUID deviceId) {
         Instant now = Instant.now(clock);
         refreshTokenRepository.revokeActiveByDeviceId(deviceId, now, RefreshToken.RevokeReason.LOGOUT);
@@ -252,7 +283,14 @@ public class AuthService {
         return raw;
     }
 
-    private Jwt encodeAccessToken(AppUserPrincipal principal) {
+    /**
+     * Encodes the access token of the user.
+     *
+     * @param principal    the authenticated user
+     * @param workspaceIds the ids of the workspaces the user owns, carried in the
+     *                     {@value WorkspaceClaimVerifier#WORKSPACES_CLAIM} claim
+     */
+    private Jwt encodeAccessToken(AppUserPrincipal principal, List<Long> workspaceIds) {
         Instant now = Instant.now(clock);
         Instant exp = now.plus(jwtProperties.accessTokenTtl());
 
@@ -269,8 +307,10 @@ public class AuthService {
                 .claim("scope", scope)
                 .claim("roles", new String[]{principal.role()})
                 .claim("name", principal.displayName())
-                .claim("userId", principal.id());
+                .claim("userId", principal.id())
+                .claim(WorkspaceClaimVerifier.WORKSPACES_CLAIM, workspaceIds);
 
-        return jwtEncoder.encode(JwtEncoderParameters.from(claims.build()));
+        JwsHeader header = JwsHeader.with(jwtProperties.algorithm()).build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(header, claims.build()));
     }
 }
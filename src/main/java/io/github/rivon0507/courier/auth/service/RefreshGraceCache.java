@@ -0,0 +1,95 @@
+package io.github.rivon0507.courier.auth.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.rivon0507.courier.security.configuration.SessionProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Replays the result of a refresh to the requests presenting the same refresh token during
+ * {@link SessionProperties#refreshGraceWindow()}.
+ *
+ * <p>Browser tabs sharing the refresh cookie tend to refresh at the same time. Without a grace window, only the first
+ * request rotates the token and the others look like a reuse of the rotated token, which revokes the whole family.
+ * Requests arriving while the rotation is in flight wait for it instead of reaching the database; those arriving
+ * afterwards get the cached result until the window elapses.
+ *
+ * <p>Results are keyed by the hash of the rotated token and the device id, so a stolen token presented from another
+ * device is never served from here. Failed rotations are not cached. Hit and miss counters are exported as the
+ * {@code auth.refresh.grace} cache metrics.
+ */
+@Component
+public class RefreshGraceCache {
+
+    private final Duration graceWindow;
+    private final AsyncCache<Key, AuthSessionResult> results;
+
+    public RefreshGraceCache(SessionProperties properties, MeterRegistry meterRegistry) {
+        this.graceWindow = properties.refreshGraceWindow();
+        this.results = Caffeine.newBuilder()
+                .maximumSize(properties.refreshGraceMaxEntries())
+                .expireAfterWrite(graceWindow)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "auth.refresh.grace");
+    }
+
+    /**
+     * Returns the result of the rotation of the token, running it only if no result is cached or in flight.
+     *
+     * @param tokenHash the hash of the presented refresh token
+     * @param deviceId  the device presenting it
+     * @param rotation  rotates the token; its exceptions are rethrown to every waiting request
+     * @return the result of the rotation
+     */
+    public AuthSessionResult getOrRotate(byte[] tokenHash, UUID deviceId, Supplier<AuthSessionResult> rotation) {
+        if (graceWindow.isZero()) return rotation.get();
+
+        Key key = new Key(HexFormat.of().formatHex(tokenHash), deviceId);
+        CompletableFuture<AuthSessionResult> rotating = new CompletableFuture<>();
+        CompletableFuture<AuthSessionResult> existing = results.asMap().putIfAbsent(key, rotating);
+        if (existing != null) return join(existing);
+
+        try {
+            AuthSessionResult result = rotation.get();
+            rotating.complete(result);
+            return result;
+        } catch (Throwable e) {
+            // Errors included: a future left incomplete would block the waiting requests forever, and never expire.
+            // Caffeine drops futures completed exceptionally
+            rotating.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Whether a token revoked at the given instant is still within the grace window, in which case presenting it
+     * again is a race between requests rather than a reuse.
+     */
+    public boolean isWithinGraceWindow(Instant revokedAt, Instant now) {
+        return !graceWindow.isZero() && revokedAt.plus(graceWindow).isAfter(now);
+    }
+
+    private static AuthSessionResult join(CompletableFuture<AuthSessionResult> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+
+    private record Key(String tokenHash, UUID deviceId) {
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.rivon0507.courier.auth.service;
+
+import io.github.rivon0507.courier.auth.domain.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * Deletes the refresh tokens that can no longer be used nor help detect a reuse, so that {@code refresh_tokens} and
+ * its indexes stop growing with every login and refresh.
+ *
+ * <p>Tokens are deleted in batches of {@link RefreshTokenPurgeProperties#batchSize()}, each in its own transaction,
+ * until a batch comes back short. The number of deleted tokens is exported as {@code auth.refresh_tokens.purged} and
+ * the duration of each run as {@code auth.refresh_tokens.purge}.
+ */
+@Slf4j
+@Component
+public class RefreshTokenPurgeJob {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenPurgeProperties properties;
+    private final Clock clock = Clock.systemUTC();
+    private final Counter purged;
+    private final Timer runs;
+
+    public RefreshTokenPurgeJob(RefreshTokenRepository refreshTokenRepository,
+                                RefreshTokenPurgeProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.properties = properties;
+        this.purged = Counter.builder("auth.refresh_tokens.purged")
+                .description("Refresh tokens deleted by the purge job")
+                .register(meterRegistry);
+        this.runs = Timer.builder("auth.refresh_tokens.purge")
+                .description("Duration of the refresh token purge runs")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.security.session.purge.interval}",
+            fixedDelayString = "${app.security.session.purge.interval}"
+    )
+    void purgeOnSchedule() {
+        if (properties.enabled()) purge();
+    }
+
+    /**
+     * Deletes the tokens that expired, or were revoked other than by rotation, more than
+     * {@link RefreshTokenPurgeProperties#retention()} ago.
+     *
+     * @return the number of deleted tokens
+     */
+    public long purge() {
+        Instant horizon = Instant.now(clock).minus(properties.retention());
+        Timer.Sample run = Timer.start();
+        long total = 0;
+        try {
+            int batch;
+            do {
+                batch = refreshTokenRepository.deletePurgeable(horizon, properties.batchSize());
+                total += batch;
+            } while (batch == properties.batchSize());
+        } finally {
+            // Each batch is committed on its own: a failed run still deleted the tokens of its previous batches
+            run.stop(runs);
+            purged.increment(total);
+        }
+        log.info("Purged {} refresh tokens older than {}", total, horizon);
+        return total;
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.rivon0507.courier.auth.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the background purge of the {@code refresh_tokens} table. Bound to properties under the prefix
+ * `app.security.session.purge`.
+ *
+ * @param enabled   whether the purge runs on schedule
+ * @param interval  the delay between the end of a run and the start of the next one
+ * @param retention how long expired and revoked tokens are kept before being deleted
+ * @param batchSize the maximum number of rows deleted per statement (and transaction)
+ */
+@ConfigurationProperties(prefix = "app.security.session.purge")
+public record RefreshTokenPurgeProperties(
+        boolean enabled,
+        Duration interval,
+        Duration retention,
+        int batchSize
+) {
+}
@@ -0,0 +1,37 @@
+package io.github.rivon0507.courier.auth.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, in its "theoretical arrival time" form (GCRA): instead of a token count refilled over
+ * time, it keeps the instant at which the bucket will be full again, and a request is allowed if taking one token
+ * does not push that instant further than {@code capacity} refill intervals ahead.
+ */
+class TokenBucket {
+
+    private final long refillNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAtNanos;
+
+    TokenBucket(AuthRateLimitProperties.Bucket bucket, long nowNanos) {
+        this.refillNanos = bucket.refillInterval().toNanos();
+        this.burstNanos = refillNanos * bucket.capacity();
+        this.fullAtNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token.
+     *
+     * @param nowNanos the current {@link System#nanoTime()}
+     * @return 0 if the token was taken, otherwise how many nanoseconds to wait before one is available
+     */
+    long tryConsume(long nowNanos) {
+        while (true) {
+            long fullAt = fullAtNanos.get();
+            long next = Math.max(fullAt, nowNanos) + refillNanos;
+            long ahead = next - nowNanos;
+            if (ahead > burstNanos) return ahead - burstNanos;
+            if (fullAtNanos.compareAndSet(fullAt, next)) return 0;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package io.github.rivon0507.courier.auth.web.error;
+
+import io.github.rivon0507.courier.common.web.error.RetryLaterException;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+public class TooManyRequestsException extends RetryLaterException {
+    public TooManyRequestsException(Duration retryAfter) {
+        super(HttpStatus.TOO_MANY_REQUESTS, "TOO_MANY_REQUESTS", "Too many attempts, retry later", retryAfter);
+    }
+}
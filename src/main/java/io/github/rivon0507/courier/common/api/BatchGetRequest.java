@@ -0,0 +1,17 @@
+package io.github.rivon0507.courier.common.api;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Body of the {@code :batchGet} endpoints.
+ *
+ * @param ids the ids of the resources to return, in the order they should be returned
+ */
+public record BatchGetRequest(
+        @NotEmpty @Size(max = 200) List<@NotNull Long> ids
+) {
+}
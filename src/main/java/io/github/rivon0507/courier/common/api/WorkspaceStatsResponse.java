@@ -0,0 +1,9 @@
+package io.github.rivon0507.courier.common.api;
+
+public record WorkspaceStatsResponse(
+        long envoiCount,
+        long receptionCount,
+        long pieceCount,
+        long totalQuantite
+) {
+}
@@ -13,8 +13,11 @@ import java.time.Instant;
 @Setter
 public class Piece {
 
+    /**
+     * Allocated from the {@code <entity>_seq} sequence of each subclass (e.g. {@code envoi_piece_seq}).
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
     @Column(nullable = false)
@@ -0,0 +1,29 @@
+package io.github.rivon0507.courier.common.domain;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Number of pieces and sum of their quantities, as counted in the workspace counters.
+ *
+ * @param count    the number of pieces
+ * @param quantite the sum of the quantities of the pieces
+ */
+public record PieceTotals(long count, long quantite) {
+
+    public static final PieceTotals NONE = new PieceTotals(0, 0);
+
+    public static PieceTotals of(Collection<? extends Piece> pieces) {
+        long quantite = 0;
+        for (Piece piece : pieces) quantite += Objects.requireNonNullElse(piece.getQuantite(), 0);
+        return new PieceTotals(pieces.size(), quantite);
+    }
+
+    public PieceTotals minus(PieceTotals other) {
+        return new PieceTotals(count - other.count, quantite - other.quantite);
+    }
+
+    public PieceTotals negate() {
+        return NONE.minus(this);
+    }
+}
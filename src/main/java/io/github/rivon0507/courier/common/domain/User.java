@@ -11,6 +11,7 @@ import java.time.Instant;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserPrincipalListener.class)
 @Getter
 @Setter
 public class User {
@@ -35,7 +36,7 @@ public class User {
     @Column(name = "is_active", nullable = false)
     private boolean active = true;
 
-    @OneToOne(cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+    @OneToOne(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     @JoinColumn(name = "default_workspace_id")
     private Workspace defaultWorkspace;
 
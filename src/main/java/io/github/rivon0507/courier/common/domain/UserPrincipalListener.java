@@ -0,0 +1,28 @@
+package io.github.rivon0507.courier.common.domain;
+
+import io.github.rivon0507.courier.security.UserPrincipalService;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Evicts the cached principal of a user when it is updated (e.g. deactivated or renamed) or deleted, at flush and
+ * again after the transaction completes (see {@link UserPrincipalService#evict(Long)}).
+ *
+ * <p>The service is resolved lazily because entity listeners are instantiated while the entity manager factory, which
+ * the service indirectly depends on, is still being built.
+ */
+public class UserPrincipalListener {
+
+    private final ObjectProvider<UserPrincipalService> userPrincipalService;
+
+    public UserPrincipalListener(ObjectProvider<UserPrincipalService> userPrincipalService) {
+        this.userPrincipalService = userPrincipalService;
+    }
+
+    @PostUpdate
+    @PostRemove
+    void evict(User user) {
+        userPrincipalService.ifAvailable(service -> service.evict(user.getId()));
+    }
+}
@@ -10,6 +10,7 @@ import java.time.Instant;
 
 @Entity
 @Table(name = "workspace")
+@EntityListeners(WorkspaceOwnershipListener.class)
 @Getter
 @Setter
 public class Workspace {
@@ -17,7 +18,7 @@ public class Workspace {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
     private User owner;
 
@@ -0,0 +1,36 @@
+package io.github.rivon0507.courier.common.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Denormalized totals of a workspace. Read-only on the JPA side: rows are only written through the atomic upserts of
+ * {@link io.github.rivon0507.courier.common.persistence.WorkspaceCountersRepository}.
+ */
+@Entity
+@Table(name = "workspace_counters")
+@Getter
+public class WorkspaceCounters {
+    @Id
+    private Long workspaceId;
+
+    @Column(nullable = false)
+    private long envoiCount;
+
+    @Column(nullable = false)
+    private long receptionCount;
+
+    @Column(nullable = false)
+    private long pieceCount;
+
+    @Column(nullable = false)
+    private long totalQuantite;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,28 @@
+package io.github.rivon0507.courier.common.domain;
+
+import io.github.rivon0507.courier.common.service.WorkspaceOwnershipService;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Evicts the cached owner of a workspace when it is updated (e.g. ownership transfer) or deleted, at flush and again
+ * after the transaction completes (see {@link WorkspaceOwnershipService#evict(Long)}).
+ *
+ * <p>The service is resolved lazily because entity listeners are instantiated while the entity manager factory, which
+ * the service indirectly depends on, is still being built.
+ */
+public class WorkspaceOwnershipListener {
+
+    private final ObjectProvider<WorkspaceOwnershipService> ownershipService;
+
+    public WorkspaceOwnershipListener(ObjectProvider<WorkspaceOwnershipService> ownershipService) {
+        this.ownershipService = ownershipService;
+    }
+
+    @PostUpdate
+    @PostRemove
+    void evict(Workspace workspace) {
+        ownershipService.ifAvailable(service -> service.evict(workspace.getId()));
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.rivon0507.courier.common.pagination;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * @param pageSize   the requested page size
+ * @param nextCursor the cursor to pass to get the next page, or {@code null} on the last page
+ */
+public record CursorPageInfo(
+        int pageSize,
+        @Nullable String nextCursor
+) {
+}
@@ -0,0 +1,40 @@
+package io.github.rivon0507.courier.common.pagination;
+
+import org.jspecify.annotations.NonNull;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Cursor-based counterpart of {@link PagedResponse}: no page index nor totals, only the cursor of the next page.
+ */
+public record CursorPagedResponse<T>(
+        List<T> _items,
+        CursorPageInfo _page,
+        SortInfo _sort
+) {
+    /**
+     * Builds a page out of rows fetched with a limit of {@code pageSize + 1}: the extra row, if any, only tells that
+     * there is a next page and is not returned.
+     *
+     * @param rows     the fetched rows, in listing order
+     * @param pageSize the requested page size
+     * @param sort     the order of the listing
+     * @param cursorOf the position of a row
+     * @param mapper   maps a row to its response
+     */
+    public static <E, T> CursorPagedResponse<T> fromRows(@NonNull List<E> rows,
+                                                         int pageSize,
+                                                         SortInfo sort,
+                                                         Function<E, KeysetCursor> cursorOf,
+                                                         Function<E, T> mapper) {
+        boolean hasNext = rows.size() > pageSize;
+        List<E> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(page.getLast()).encode() : null;
+        return new CursorPagedResponse<>(
+                page.stream().map(mapper).toList(),
+                new CursorPageInfo(pageSize, nextCursor),
+                sort
+        );
+    }
+}
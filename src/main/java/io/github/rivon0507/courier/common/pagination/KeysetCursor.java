@@ -0,0 +1,46 @@
+package io.github.rivon0507.courier.common.pagination;
+
+import io.github.rivon0507.courier.common.web.error.InvalidCursorException;
+import org.jspecify.annotations.NonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a page in a listing ordered by {@code (date, id)}.
+ *
+ * <p>Clients only ever see the {@linkplain #encode() encoded} form, which they must treat as opaque.
+ *
+ * @param date the date of the last row
+ * @param id   the id of the last row, breaking ties between rows of the same date
+ */
+public record KeysetCursor(@NonNull LocalDate date, long id) {
+
+    private static final char SEPARATOR = ':';
+
+    public String encode() {
+        String raw = date.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor a cursor previously returned by {@link #encode()}
+     * @return the decoded cursor
+     * @throws InvalidCursorException if the cursor was not produced by {@link #encode()}
+     */
+    public static KeysetCursor decode(@NonNull String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) throw new InvalidCursorException();
+            return new KeysetCursor(
+                    LocalDate.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException();
+        }
+    }
+}
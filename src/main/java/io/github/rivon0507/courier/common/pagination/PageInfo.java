@@ -1,9 +1,25 @@
 package io.github.rivon0507.courier.common.pagination;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * @param totalElements  the number of elements across all pages, absent when the listing was requested without total
+ * @param totalPages     the number of pages, absent when the listing was requested without total
+ * @param hasNext        whether there is a page after this one
+ * @param totalEstimated whether the totals are an estimate rather than an exact count
+ * @see TotalMode
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record PageInfo(
         int pageIndex,
         int pageSize,
-        long totalElements,
-        long totalPages
+        @Nullable Long totalElements,
+        @Nullable Long totalPages,
+        boolean hasNext,
+        boolean totalEstimated
 ) {
+    public PageInfo(int pageIndex, int pageSize, long totalElements, long totalPages) {
+        this(pageIndex, pageSize, totalElements, totalPages, pageIndex + 1L < totalPages, false);
+    }
 }
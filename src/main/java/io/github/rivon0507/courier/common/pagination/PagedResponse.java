@@ -2,6 +2,7 @@ package io.github.rivon0507.courier.common.pagination;
 
 import org.jspecify.annotations.NonNull;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -14,7 +15,36 @@ public record PagedResponse<T>(
         return new PagedResponse<>(
                 page.toList(),
                 new PageInfo(page.getNumber(), page.getSize(), page.getTotalElements(), page.getTotalPages()),
-                new SortInfo(page.getSort().stream().findFirst().orElseThrow())
+                sortInfo(page)
         );
     }
+
+    /**
+     * Page without totals, for listings requested with {@link TotalMode#NONE}.
+     */
+    public static <T> PagedResponse<T> fromSlice(@NonNull Slice<T> slice) {
+        return new PagedResponse<>(
+                slice.toList(),
+                new PageInfo(slice.getNumber(), slice.getSize(), null, null, slice.hasNext(), false),
+                sortInfo(slice)
+        );
+    }
+
+    /**
+     * Page with estimated totals, for listings requested with {@link TotalMode#ESTIMATE}.
+     *
+     * @param estimatedTotal the estimated number of elements across all pages
+     */
+    public static <T> PagedResponse<T> fromSlice(@NonNull Slice<T> slice, long estimatedTotal) {
+        long totalPages = (estimatedTotal + slice.getSize() - 1) / slice.getSize();
+        return new PagedResponse<>(
+                slice.toList(),
+                new PageInfo(slice.getNumber(), slice.getSize(), estimatedTotal, totalPages, slice.hasNext(), true),
+                sortInfo(slice)
+        );
+    }
+
+    private static SortInfo sortInfo(Slice<?> slice) {
+        return new SortInfo(slice.getSort().stream().findFirst().orElseThrow());
+    }
 }
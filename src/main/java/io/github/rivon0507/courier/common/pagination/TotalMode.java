@@ -0,0 +1,16 @@
+package io.github.rivon0507.courier.common.pagination;
+
+/**
+ * How the totals of a paged listing are computed, selected with the {@code withTotal} request parameter.
+ */
+public enum TotalMode {
+    /** {@code withTotal=true} (default): exact totals, read from the workspace counters where the listing has one. */
+    EXACT,
+    /** {@code withTotal=false}: no totals, only whether there is a next page. */
+    NONE,
+    /**
+     * {@code withTotal=estimate}: totals from a periodically refreshed count, for views that only need an idea. Listings
+     * with a workspace counter answer with their exact total instead, which costs no more.
+     */
+    ESTIMATE
+}
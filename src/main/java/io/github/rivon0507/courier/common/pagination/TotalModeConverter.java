@@ -0,0 +1,25 @@
+package io.github.rivon0507.courier.common.pagination;
+
+import org.jspecify.annotations.NonNull;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Binds the {@code withTotal} request parameter ({@code true}, {@code false} or {@code estimate}) to a
+ * {@link TotalMode}.
+ */
+@Component
+public class TotalModeConverter implements Converter<String, TotalMode> {
+
+    @Override
+    public TotalMode convert(@NonNull String source) {
+        return switch (source.trim().toLowerCase(Locale.ROOT)) {
+            case "", "true" -> TotalMode.EXACT;
+            case "false" -> TotalMode.NONE;
+            case "estimate" -> TotalMode.ESTIMATE;
+            default -> throw new IllegalArgumentException("withTotal must be one of true, false or estimate");
+        };
+    }
+}
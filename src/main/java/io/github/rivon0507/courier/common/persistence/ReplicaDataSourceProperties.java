@@ -0,0 +1,28 @@
+package io.github.rivon0507.courier.common.persistence;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties of the read replica. Bound to properties under the prefix `app.datasource.replica`.
+ * Read-only transactions are routed to the replica only when {@code url} is set.
+ *
+ * @param url               JDBC url of the replica
+ * @param username          user connecting to the replica
+ * @param password          password of that user
+ * @param maximumPoolSize   maximum number of connections kept to the replica
+ * @param connectionTimeout time to wait for a replica connection before reading from the primary instead
+ * @param fallbackCooldown  time during which reads go straight to the primary after the replica failed to hand out a
+ *                          connection, instead of each waiting for {@code connectionTimeout}
+ */
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public record ReplicaDataSourceProperties(
+        String url,
+        String username,
+        String password,
+        int maximumPoolSize,
+        Duration connectionTimeout,
+        Duration fallbackCooldown
+) {
+}
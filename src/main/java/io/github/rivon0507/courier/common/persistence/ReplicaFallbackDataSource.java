@@ -0,0 +1,51 @@
+package io.github.rivon0507.courier.common.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Hands out connections to the replica, or to the primary when the replica cannot be reached, so that a replica
+ * outage slows reads down to the primary instead of failing them.
+ *
+ * <p>Once the replica has failed to hand out a connection, reads go straight to the primary for the cooldown, and
+ * the next read after it tries the replica again. Without it, every read would wait for the replica's connection
+ * timeout before falling back for as long as the outage lasts.
+ */
+@Slf4j
+class ReplicaFallbackDataSource extends DelegatingDataSource {
+
+    private final DataSource primary;
+    private final Duration cooldown;
+    private final Clock clock;
+    private volatile Instant replicaRetryAt = Instant.MIN;
+
+    ReplicaFallbackDataSource(DataSource replica, DataSource primary, Duration cooldown) {
+        this(replica, primary, cooldown, Clock.systemUTC());
+    }
+
+    ReplicaFallbackDataSource(DataSource replica, DataSource primary, Duration cooldown, Clock clock) {
+        super(replica);
+        this.primary = primary;
+        this.cooldown = cooldown;
+        this.clock = clock;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (clock.instant().isBefore(replicaRetryAt)) return primary.getConnection();
+        try {
+            return super.getConnection();
+        } catch (SQLException e) {
+            replicaRetryAt = clock.instant().plus(cooldown);
+            log.warn("Replica unavailable, reading from the primary for {}: {}", cooldown, e.getMessage());
+            return primary.getConnection();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.rivon0507.courier.common.persistence;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Sends the read-only transactions to the replica configured under {@code app.datasource.replica}, and everything
+ * else to the primary.
+ *
+ * <p>The data source auto-configured by Spring Boot stays the primary; it is wrapped in a
+ * {@link LazyConnectionDataSourceProxy}, which only fetches a connection once the transaction has been started, and
+ * fetches it from the replica when the transaction is read-only. The replica lags behind the primary, so only reads
+ * tolerating slightly stale rows belong in {@code @Transactional(readOnly = true)}. The built-in methods of Spring Data
+ * repositories, such as {@code findById}, are read-only transactions of their own and are routed to the replica when
+ * called outside a transaction.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnExpression("!'${app.datasource.replica.url:}'.isBlank()")
+public class ReplicaRoutingConfiguration {
+
+    private static final String PRIMARY_DATA_SOURCE = "dataSource";
+    private static final String REPLICA_DATA_SOURCE = "replicaDataSource";
+
+    /**
+     * Kept out of autowiring so that Spring Boot still sees a single data source to configure JPA and Flyway with.
+     */
+    @Bean(name = REPLICA_DATA_SOURCE, defaultCandidate = false)
+    HikariDataSource replicaDataSource(ReplicaDataSourceProperties properties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(properties.url());
+        dataSource.setUsername(properties.username());
+        dataSource.setPassword(properties.password());
+        dataSource.setMaximumPoolSize(properties.maximumPoolSize());
+        dataSource.setConnectionTimeout(properties.connectionTimeout().toMillis());
+        dataSource.setReadOnly(true);
+        // Starting up while the replica is down is fine, reads go to the primary until it is back
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    static BeanPostProcessor replicaRoutingDataSourcePostProcessor(BeanFactory beanFactory) {
+        return new BeanPostProcessor() {
+            @Override
+            public @NonNull Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+                if (!PRIMARY_DATA_SOURCE.equals(beanName) || !(bean instanceof DataSource primary)) return bean;
+                DataSource replica = beanFactory.getBean(REPLICA_DATA_SOURCE, DataSource.class);
+                Duration cooldown = beanFactory.getBean(ReplicaDataSourceProperties.class).fallbackCooldown();
+                LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+                routing.setReadOnlyDataSource(new ReplicaFallbackDataSource(replica, primary, cooldown));
+                return routing;
+            }
+        };
+    }
+}
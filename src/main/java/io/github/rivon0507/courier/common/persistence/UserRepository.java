@@ -1,12 +1,29 @@
 package io.github.rivon0507.courier.common.persistence;
 
 import io.github.rivon0507.courier.common.domain.User;
+import io.github.rivon0507.courier.security.AppUserPrincipal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findUserByEmail(String email);
+
+    @Query("""
+            select new io.github.rivon0507.courier.security.AppUserPrincipal(
+                u.id, u.email, u.displayName, u.role, u.passwordHash, u.active, u.defaultWorkspace.id)
+            from User u
+            where u.email = :email
+            """)
+    Optional<AppUserPrincipal> findPrincipalByEmail(String email);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.passwordHash = :passwordHash where u.id = :id")
+    void updatePasswordHash(Long id, String passwordHash);
 }
@@ -0,0 +1,42 @@
+package io.github.rivon0507.courier.common.persistence;
+
+import io.github.rivon0507.courier.common.domain.WorkspaceCounters;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface WorkspaceCountersRepository extends JpaRepository<WorkspaceCounters, Long> {
+
+    /**
+     * Adds the given deltas to the counters of a workspace.
+     *
+     * @return the number of updated rows, {@code 0} if the workspace has no counters row yet
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update WorkspaceCounters c set
+                c.envoiCount = c.envoiCount + :envois,
+                c.receptionCount = c.receptionCount + :receptions,
+                c.pieceCount = c.pieceCount + :pieces,
+                c.totalQuantite = c.totalQuantite + :quantite,
+                c.updatedAt = :now
+            where c.workspaceId = :workspaceId
+            """)
+    int add(Long workspaceId, long envois, long receptions, long pieces, long quantite, Instant now);
+
+    @Modifying
+    @Query(value = "INSERT INTO workspace_counters (workspace_id) VALUES (:workspaceId) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    void insertIfMissing(Long workspaceId);
+
+    @Query("select c.envoiCount from WorkspaceCounters c where c.workspaceId = :workspaceId")
+    Optional<Long> findEnvoiCountByWorkspaceId(Long workspaceId);
+
+    @Query("select c.receptionCount from WorkspaceCounters c where c.workspaceId = :workspaceId")
+    Optional<Long> findReceptionCountByWorkspaceId(Long workspaceId);
+}
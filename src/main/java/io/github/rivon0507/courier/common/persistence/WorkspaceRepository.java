@@ -2,9 +2,17 @@ package io.github.rivon0507.courier.common.persistence;
 
 import io.github.rivon0507.courier.common.domain.Workspace;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface WorkspaceRepository extends JpaRepository<Workspace, Long> {
-    boolean existsByIdAndOwner_Id(Long id, Long ownerId);
+    @Query("select w.owner.id from Workspace w where w.id = :id")
+    Optional<Long> findOwnerIdById(Long id);
+
+    @Query("select w.id from Workspace w where w.owner.id = :ownerId order by w.id")
+    List<Long> findIdsByOwnerId(Long ownerId);
 }
@@ -0,0 +1,19 @@
+package io.github.rivon0507.courier.common.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the counts served to listings requested with estimated totals. Bound to properties under the
+ * prefix `app.pagination.approximate-count`.
+ *
+ * @param maxSize maximum number of cached counts
+ * @param ttl     how long a count is served before being recomputed
+ */
+@ConfigurationProperties(prefix = "app.pagination.approximate-count")
+public record ApproximateCountProperties(
+        long maxSize,
+        Duration ttl
+) {
+}
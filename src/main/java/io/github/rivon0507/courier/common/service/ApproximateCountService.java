@@ -0,0 +1,44 @@
+package io.github.rivon0507.courier.common.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Service;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Serves element counts of listings that may be up to a TTL old, so that listings requested with estimated totals
+ * only pay for a {@code count(*)} once per TTL and per listing. Only the piece listings use it; the envoi and reception
+ * listings have exact workspace counters.
+ *
+ * <p>Hit and miss counters are exported as the {@code pagination.approximate-count} cache metrics.
+ */
+@Service
+public class ApproximateCountService {
+
+    private final Cache<CountKey, Long> counts;
+
+    public ApproximateCountService(ApproximateCountProperties properties, MeterRegistry meterRegistry) {
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, "pagination.approximate-count");
+    }
+
+    /**
+     * @param listing    the name of the listing, e.g. {@code "envoi"}
+     * @param scopeId    the id of the entity the listing belongs to, e.g. the workspace id
+     * @param exactCount computes the exact count when there is no recent one
+     * @return a count of the listing, possibly stale
+     */
+    public long count(String listing, Long scopeId, LongSupplier exactCount) {
+        return counts.get(new CountKey(listing, scopeId), key -> exactCount.getAsLong());
+    }
+
+    private record CountKey(String listing, Long scopeId) {
+    }
+}
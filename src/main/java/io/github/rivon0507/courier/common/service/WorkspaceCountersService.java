@@ -0,0 +1,63 @@
+package io.github.rivon0507.courier.common.service;
+
+import io.github.rivon0507.courier.common.api.WorkspaceStatsResponse;
+import io.github.rivon0507.courier.common.domain.PieceTotals;
+import io.github.rivon0507.courier.common.persistence.WorkspaceCountersRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * Keeps the per-workspace counters (envois, receptions, pieces and total quantity) in step with the rows they count.
+ *
+ * <p>The record methods must be called from the transaction that changes the counted rows, so that the counters are
+ * committed or rolled back together with them. Concurrent changes in the same workspace serialize on its counters row
+ * until commit. Rows are created on the first change of a workspace.
+ */
+@Service
+@RequiredArgsConstructor
+public class WorkspaceCountersService {
+
+    private final WorkspaceCountersRepository workspaceCountersRepository;
+    private final WorkspaceOwnershipService workspaceOwnershipService;
+    private final Clock clock = Clock.systemUTC();
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordEnvois(Long workspaceId, long envois, PieceTotals pieces) {
+        add(workspaceId, envois, 0, pieces);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordReceptions(Long workspaceId, long receptions, PieceTotals pieces) {
+        add(workspaceId, 0, receptions, pieces);
+    }
+
+    public long envoiCount(Long workspaceId) {
+        return workspaceCountersRepository.findEnvoiCountByWorkspaceId(workspaceId).orElse(0L);
+    }
+
+    public long receptionCount(Long workspaceId) {
+        return workspaceCountersRepository.findReceptionCountByWorkspaceId(workspaceId).orElse(0L);
+    }
+
+    public WorkspaceStatsResponse getStats(Long workspaceId, Long userId) {
+        workspaceOwnershipService.ensureWorkspaceBelongsToUser(workspaceId, userId);
+        return workspaceCountersRepository.findById(workspaceId)
+                .map(c -> new WorkspaceStatsResponse(
+                        c.getEnvoiCount(), c.getReceptionCount(), c.getPieceCount(), c.getTotalQuantite()))
+                .orElseGet(() -> new WorkspaceStatsResponse(0, 0, 0, 0));
+    }
+
+    private void add(Long workspaceId, long envois, long receptions, PieceTotals pieces) {
+        if (envois == 0 && receptions == 0 && pieces.equals(PieceTotals.NONE)) return;
+        Instant now = Instant.now(clock);
+        if (workspaceCountersRepository.add(workspaceId, envois, receptions, pieces.count(), pieces.quantite(), now) == 0) {
+            workspaceCountersRepository.insertIfMissing(workspaceId);
+            workspaceCountersRepository.add(workspaceId, envois, receptions, pieces.count(), pieces.quantite(), now);
+        }
+    }
+}
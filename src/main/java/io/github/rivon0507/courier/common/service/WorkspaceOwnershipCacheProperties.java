@@ -0,0 +1,19 @@
+package io.github.rivon0507.courier.common.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties of the workspace ownership cache. Bound to properties under the prefix
+ * `app.workspace.ownership-cache`.
+ *
+ * @param maxSize maximum number of workspaces whose owner is kept in memory
+ * @param ttl     time after which a cached owner is evicted and looked up again
+ */
+@ConfigurationProperties(prefix = "app.workspace.ownership-cache")
+public record WorkspaceOwnershipCacheProperties(
+        long maxSize,
+        Duration ttl
+) {
+}
@@ -0,0 +1,92 @@
+package io.github.rivon0507.courier.common.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.rivon0507.courier.common.persistence.WorkspaceRepository;
+import io.github.rivon0507.courier.common.web.error.WorkspaceNotFoundException;
+import io.github.rivon0507.courier.security.WorkspaceClaimVerifier;
+import io.github.rivon0507.courier.security.configuration.JwtProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+
+/**
+ * Answers "does this workspace belong to this user?" for the workspace-scoped services.
+ *
+ * <p>When the request carries an access token listing the workspace in its
+ * {@value WorkspaceClaimVerifier#WORKSPACES_CLAIM} claim, the check is answered from the token alone. Otherwise, and
+ * unless {@link JwtProperties#workspacesClaimFallback()} is disabled, the owner is looked up.
+ *
+ * <p>Workspace owners almost never change, so the owner of each workspace is cached (workspaceId → ownerId) in a
+ * bounded cache whose entries expire after a configurable TTL. Entries are evicted when a workspace is updated or
+ * deleted through JPA (see {@link io.github.rivon0507.courier.common.domain.WorkspaceOwnershipListener}), and again once
+ * the transaction making the change completes; the TTL bounds staleness for changes made outside the application.
+ *
+ * <p>Hit, miss and eviction counters are exported as the {@code workspace.ownership} cache metrics.
+ */
+@Service
+public class WorkspaceOwnershipService {
+
+    private final WorkspaceRepository workspaceRepository;
+    private final WorkspaceClaimVerifier workspaceClaimVerifier;
+    private final boolean claimFallback;
+    private final Cache<Long, Long> ownerIds;
+
+    public WorkspaceOwnershipService(WorkspaceRepository workspaceRepository,
+                                     WorkspaceClaimVerifier workspaceClaimVerifier,
+                                     JwtProperties jwtProperties,
+                                     WorkspaceOwnershipCacheProperties properties,
+                                     MeterRegistry meterRegistry) {
+        this.workspaceRepository = workspaceRepository;
+        this.workspaceClaimVerifier = workspaceClaimVerifier;
+        this.claimFallback = jwtProperties.workspacesClaimFallback();
+        this.ownerIds = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, ownerIds, "workspace.ownership");
+    }
+
+    /**
+     * Ensures that the workspace exists and is owned by the user.
+     *
+     * @param workspaceId the workspace id
+     * @param userId      the id of the user making the request
+     * @throws WorkspaceNotFoundException if the workspace does not exist or belongs to someone else
+     */
+    public void ensureWorkspaceBelongsToUser(Long workspaceId, Long userId) {
+        WorkspaceClaimVerifier.Verdict verdict = workspaceClaimVerifier.verify(workspaceId, userId);
+        if (verdict == WorkspaceClaimVerifier.Verdict.GRANTED) return;
+        if (verdict == WorkspaceClaimVerifier.Verdict.NOT_LISTED && !claimFallback)
+            throw new WorkspaceNotFoundException();
+
+        // Unknown workspaces are not cached: the loader returning null leaves the cache untouched
+        Long ownerId = ownerIds.get(workspaceId, id -> workspaceRepository.findOwnerIdById(id).orElse(null));
+        if (ownerId == null || !Objects.equals(ownerId, userId)) throw new WorkspaceNotFoundException();
+    }
+
+    /**
+     * Forgets the cached owner of a workspace, so that the next check reads it from the database.
+     *
+     * <p>Called from a transaction, the owner is forgotten again once it completes: a check made between the change
+     * and its commit still reads the old owner, and would otherwise cache it for the whole TTL.
+     *
+     * @param workspaceId the workspace id
+     */
+    public void evict(Long workspaceId) {
+        ownerIds.invalidate(workspaceId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    ownerIds.invalidate(workspaceId);
+                }
+            });
+        }
+    }
+}
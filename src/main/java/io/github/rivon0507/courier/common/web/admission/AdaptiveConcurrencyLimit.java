@@ -0,0 +1,106 @@
+package io.github.rivon0507.courier.common.web.admission;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit adjusted with AIMD (additive increase, multiplicative decrease) from the observed latency.
+ *
+ * <p>Every request slower than {@link AdmissionControlProperties#latencyThreshold()}, or failing with a server error,
+ * multiplies the limit by {@link AdmissionControlProperties#backoffRatio()}. Every other request grows it by
+ * {@code 1 / limit}, so about one slot per limit's worth of requests, but only while at least half of the slots are
+ * in use: an idle route has no evidence that it could take more.
+ *
+ * <p>When all slots are taken, up to {@link AdmissionControlProperties#maxQueued()} requests wait at most
+ * {@link AdmissionControlProperties#queueTimeout()} for one to be released.
+ */
+class AdaptiveConcurrencyLimit {
+
+    private final AdmissionControlProperties properties;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int queued;
+    // Only written with the lock held; volatile for the metric reading it
+    private volatile long waited;
+
+    AdaptiveConcurrencyLimit(AdmissionControlProperties properties) {
+        this.properties = properties;
+        this.limit = properties.initialLimit();
+    }
+
+    /**
+     * Takes a slot, waiting for one if needed.
+     *
+     * @return whether a slot was taken; if not, the request must be rejected
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    boolean acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return true;
+            }
+            if (queued >= properties.maxQueued()) return false;
+
+            queued++;
+            waited++;
+            try {
+                long remaining = properties.queueTimeout().toNanos();
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) return false;
+                    remaining = released.awaitNanos(remaining);
+                }
+                inFlight++;
+                return true;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives back the slot of a completed request and adjusts the limit.
+     *
+     * @param latency how long the request took once admitted
+     * @param failed  whether the request failed with a server error
+     */
+    void release(Duration latency, boolean failed) {
+        lock.lock();
+        try {
+            if (failed || latency.compareTo(properties.latencyThreshold()) > 0) {
+                limit = Math.max(properties.minLimit(), limit * properties.backoffRatio());
+            } else if (inFlight * 2 >= limit) {
+                limit = Math.min(properties.maxLimit(), limit + 1 / limit);
+            }
+            inFlight--;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    int inFlight() {
+        return inFlight;
+    }
+
+    int queued() {
+        return queued;
+    }
+
+    /**
+     * The number of requests that have had to wait for a slot so far, whether they got one or timed out.
+     */
+    long waited() {
+        return waited;
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.rivon0507.courier.common.web.admission;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.NonNull;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts the workspace-scoped endpoints, the ones competing for database connections, behind admission control.
+ */
+@Configuration
+@ConditionalOnBooleanProperty("app.admission-control.enabled")
+public class AdmissionControlConfiguration implements WebMvcConfigurer {
+
+    private final AdmissionControlProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionControlConfiguration(AdmissionControlProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        registry.addInterceptor(new AdmissionControlInterceptor(properties, meterRegistry))
+                .addPathPatterns("/workspaces/**");
+    }
+}
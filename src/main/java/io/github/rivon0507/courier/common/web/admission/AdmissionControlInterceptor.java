@@ -0,0 +1,92 @@
+package io.github.rivon0507.courier.common.web.admission;
+
+import io.github.rivon0507.courier.common.web.error.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Admits requests to a route only while it is below its {@link AdaptiveConcurrencyLimit}, so that excess load is shed
+ * with a 503 and a {@code Retry-After} header before it piles up waiting for database connections.
+ *
+ * <p>Routes are identified by their HTTP method and mapping pattern, e.g. {@code GET /workspaces/{workspaceId}/envois}.
+ * Requests without a mapping pattern share a single {@code UNMATCHED} route per method, so that arbitrary paths cannot
+ * grow the routes and the meter cardinality without bound.
+ * Each route exports the {@code http.admission.limit}, {@code http.admission.in_flight} and
+ * {@code http.admission.queue} gauges, and counts the requests that had to wait ({@code http.admission.queued}) and
+ * those that were rejected ({@code http.admission.rejected}).
+ */
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    private static final String ADMITTED_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".admitted";
+    private static final String UNMATCHED = "UNMATCHED";
+
+    private final AdmissionControlProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Route> routes = new ConcurrentHashMap<>();
+
+    public AdmissionControlInterceptor(AdmissionControlProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request,
+                             @NonNull HttpServletResponse response,
+                             @NonNull Object handler) throws InterruptedException {
+        Route route = routes.computeIfAbsent(routeOf(request), this::newRoute);
+        AdaptiveConcurrencyLimit limit = route.limit();
+
+        if (!limit.acquire()) {
+            route.rejected().increment();
+            throw new ServiceOverloadedException(properties.retryAfter());
+        }
+        request.setAttribute(ADMITTED_ATTRIBUTE, new Admission(limit, System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request,
+                                @NonNull HttpServletResponse response,
+                                @NonNull Object handler,
+                                @Nullable Exception ex) {
+        if (!(request.getAttribute(ADMITTED_ATTRIBUTE) instanceof Admission admission)) return;
+        request.removeAttribute(ADMITTED_ATTRIBUTE);
+        boolean failed = ex != null || response.getStatus() >= 500;
+        admission.limit().release(Duration.ofNanos(System.nanoTime() - admission.startNanos()), failed);
+    }
+
+    private static String routeOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : UNMATCHED);
+    }
+
+    private Route newRoute(String route) {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(properties);
+        Tags tags = Tags.of("route", route);
+        Gauge.builder("http.admission.limit", limit, AdaptiveConcurrencyLimit::limit).tags(tags).register(meterRegistry);
+        Gauge.builder("http.admission.in_flight", limit, AdaptiveConcurrencyLimit::inFlight).tags(tags).register(meterRegistry);
+        Gauge.builder("http.admission.queue", limit, AdaptiveConcurrencyLimit::queued).tags(tags).register(meterRegistry);
+        FunctionCounter.builder("http.admission.queued", limit, AdaptiveConcurrencyLimit::waited).tags(tags)
+                .register(meterRegistry);
+        return new Route(limit, Counter.builder("http.admission.rejected").tags(tags).register(meterRegistry));
+    }
+
+    private record Route(AdaptiveConcurrencyLimit limit, Counter rejected) {
+    }
+
+    private record Admission(AdaptiveConcurrencyLimit limit, long startNanos) {
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.rivon0507.courier.common.web.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the per-route concurrency limits in front of the workspace-scoped endpoints. Bound to properties
+ * under the prefix `app.admission-control`.
+ *
+ * @param enabled          whether requests go through admission control at all
+ * @param initialLimit     the concurrency limit of a route before any latency is observed
+ * @param minLimit         the limit never goes below this value
+ * @param maxLimit         the limit never goes above this value
+ * @param latencyThreshold a request slower than this is a sign of saturation and lowers the limit
+ * @param backoffRatio     the factor applied to the limit on saturation, between 0 and 1
+ * @param maxQueued        how many requests per route may wait for a slot; the others are rejected right away
+ * @param queueTimeout     how long a request may wait for a slot before being rejected
+ * @param retryAfter       the delay advertised to rejected clients
+ */
+@ConfigurationProperties(prefix = "app.admission-control")
+public record AdmissionControlProperties(
+        boolean enabled,
+        int initialLimit,
+        int minLimit,
+        int maxLimit,
+        Duration latencyThreshold,
+        double backoffRatio,
+        int maxQueued,
+        Duration queueTimeout,
+        Duration retryAfter
+) {
+}
@@ -66,6 +66,27 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return problem(ex.status(), ex.code(), ex.getMessage(), null, req);
     }
 
+    /**
+     * Handles declared failures the client may retry, such as load shedding.
+     *
+     * <p>Same body as {@link #handleApiException(ApiException, HttpServletRequest)}, plus a {@code Retry-After}
+     * header in whole seconds.
+     *
+     * @param ex  the application exception
+     * @param req the current HTTP request
+     * @return a {@link ResponseEntity} containing the {@link ProblemDetail} body
+     */
+    @ExceptionHandler(RetryLaterException.class)
+    public ResponseEntity<ProblemDetail> handleRetryLater(RetryLaterException ex, HttpServletRequest req) {
+        log.warn("ApiException code={} status={} path={} message={}",
+                ex.code(), ex.status().value(), req.getRequestURI(), ex.getMessage());
+
+        long retryAfterSeconds = Math.max(1, (ex.retryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(ex.status())
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(problem(ex.status(), ex.code(), ex.getMessage(), null, req));
+    }
+
     /**
      * Handles bean validation errors for {@code @Valid @RequestBody} payloads.
      *
@@ -0,0 +1,9 @@
+package io.github.rivon0507.courier.common.web.error;
+
+import org.springframework.http.HttpStatus;
+
+public class InvalidCursorException extends ApiException {
+    public InvalidCursorException() {
+        super(HttpStatus.BAD_REQUEST, "INVALID_CURSOR", "Invalid pagination cursor");
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.rivon0507.courier.common.web.error;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/**
+ * Declared failure that the client may retry after a delay, advertised in the {@code Retry-After} header.
+ */
+@Getter
+@Accessors(fluent = true)
+public class RetryLaterException extends ApiException {
+    private final Duration retryAfter;
+
+    public RetryLaterException(HttpStatus status, String code, String message, Duration retryAfter) {
+        super(status, code, message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,11 @@
+package io.github.rivon0507.courier.common.web.error;
+
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+public class ServiceOverloadedException extends RetryLaterException {
+    public ServiceOverloadedException(Duration retryAfter) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "SERVICE_OVERLOADED", "Too many concurrent requests, retry later", retryAfter);
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.rivon0507.courier.envoi;
+
+import io.github.rivon0507.courier.common.annotation.CurrentUserId;
+import io.github.rivon0507.courier.common.api.BatchGetRequest;
+import io.github.rivon0507.courier.envoi.api.EnvoiDetailsResponse;
+import io.github.rivon0507.courier.envoi.service.EnvoiService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Batch operations on the envois of a workspace. Mapped apart from {@link EnvoiController}: a custom method such as
+ * {@code envois:batchGet} is part of the collection's path segment, which a method mapping can only append to.
+ */
+@RestController
+@RequestMapping("/workspaces/{workspaceId}")
+@RequiredArgsConstructor
+public class EnvoiBatchController {
+
+    private final EnvoiService envoiService;
+
+    /**
+     * Returns the envois with the given ids and their pieces, in the requested order. Ids that do not match a
+     * envoi of the workspace are left out.
+     */
+    @PostMapping("/envois:batchGet")
+    public ResponseEntity<List<EnvoiDetailsResponse>> batchGet(
+            @Valid @RequestBody BatchGetRequest requestBody,
+            @PathVariable Long workspaceId,
+            @CurrentUserId Long userId) {
+
+        return ResponseEntity.ok(envoiService.batchGet(requestBody.ids(), workspaceId, userId));
+    }
+}
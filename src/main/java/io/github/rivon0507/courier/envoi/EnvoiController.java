@@ -1,13 +1,17 @@
 package io.github.rivon0507.courier.envoi;
 
 import io.github.rivon0507.courier.common.annotation.CurrentUserId;
+import io.github.rivon0507.courier.common.pagination.CursorPagedResponse;
 import io.github.rivon0507.courier.common.pagination.PagedResponse;
+import io.github.rivon0507.courier.common.pagination.TotalMode;
 import io.github.rivon0507.courier.envoi.api.EnvoiCreateRequest;
 import io.github.rivon0507.courier.envoi.api.EnvoiDetailsResponse;
 import io.github.rivon0507.courier.envoi.api.EnvoiResponse;
 import io.github.rivon0507.courier.envoi.api.EnvoiUpdateRequest;
 import io.github.rivon0507.courier.envoi.service.EnvoiService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
@@ -47,13 +51,39 @@ public class EnvoiController {
         return ResponseEntity.ok(envoiService.get(envoiId, workspaceId, userId));
     }
 
+    /**
+     * Details mode of {@link #get}, selected by {@code include=pieces}: the envoi and all its pieces in one response.
+     */
+    @GetMapping(value = "/{envoiId}", params = "include=pieces")
+    public ResponseEntity<EnvoiDetailsResponse> getDetails(
+            @PathVariable Long envoiId,
+            @PathVariable Long workspaceId,
+            @CurrentUserId Long userId) {
+        return ResponseEntity.ok(envoiService.getDetails(envoiId, workspaceId, userId));
+    }
+
     @GetMapping
     public ResponseEntity<PagedResponse<EnvoiResponse>> getPage(
             @PageableDefault(sort = "dateEnvoi") Pageable page,
+            @RequestParam(defaultValue = "true") TotalMode withTotal,
+            @PathVariable Long workspaceId,
+            @CurrentUserId Long userId) {
+
+        return ResponseEntity.ok(envoiService.getPage(page, withTotal, workspaceId, userId));
+    }
+
+    /**
+     * Cursor mode of the listing, selected by the presence of the {@code cursor} parameter (empty for the first page).
+     * Unlike offset pages, it costs the same at any depth and does not count the envois.
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPagedResponse<EnvoiResponse>> getCursorPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int size,
             @PathVariable Long workspaceId,
             @CurrentUserId Long userId) {
 
-        return ResponseEntity.ok(envoiService.getPage(page, workspaceId, userId));
+        return ResponseEntity.ok(envoiService.getCursorPage(cursor, size, workspaceId, userId));
     }
 
     @PutMapping("/{envoiId}")
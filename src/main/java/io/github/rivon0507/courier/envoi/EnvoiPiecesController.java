@@ -5,6 +5,7 @@ import io.github.rivon0507.courier.common.api.PieceCreateRequest;
 import io.github.rivon0507.courier.common.api.PieceResponse;
 import io.github.rivon0507.courier.common.api.PieceUpdateRequest;
 import io.github.rivon0507.courier.common.pagination.PagedResponse;
+import io.github.rivon0507.courier.common.pagination.TotalMode;
 import io.github.rivon0507.courier.envoi.service.EnvoiService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -35,11 +36,12 @@ public class EnvoiPiecesController {
     @GetMapping
     public ResponseEntity<PagedResponse<PieceResponse>> getPiecesPage(
             @PageableDefault(sort = "designation") Pageable page,
+            @RequestParam(defaultValue = "true") TotalMode withTotal,
             @PathVariable Long envoiId,
             @PathVariable Long workspaceId,
             @CurrentUserId Long userId) {
 
-        return ResponseEntity.ok(envoiService.getPiecesPage(envoiId, page, workspaceId, userId));
+        return ResponseEntity.ok(envoiService.getPiecesPage(envoiId, page, withTotal, workspaceId, userId));
     }
 
     @PutMapping
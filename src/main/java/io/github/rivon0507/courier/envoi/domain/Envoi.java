@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Generated;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.jspecify.annotations.Nullable;
 
@@ -16,12 +17,22 @@ import java.util.List;
 @Setter
 @Entity
 @Table(name = "envoi")
+@NamedEntityGraph(name = Envoi.WITH_PIECES, attributeNodes = @NamedAttributeNode("pieces"))
 public class Envoi {
+    /**
+     * Fetch plan of the details of an envoi: the envoi and its pieces.
+     */
+    public static final String WITH_PIECES = "Envoi.withPieces";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
-    @Column(nullable = false)
+    /**
+     * {@code ENVOI-<n>}, generated by the database on insert from the {@code envoi_reference_seq} sequence.
+     */
+    @Generated
+    @Column(nullable = false, updatable = false)
     private String reference;
 
     @Column(nullable = false)
@@ -33,11 +44,12 @@ public class Envoi {
     @Nullable
     private String observation;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "workspace_id", nullable = false)
     private Workspace workspace;
 
     @OneToMany(mappedBy = "envoi", cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+    @OrderBy("id")
     private List<EnvoiPiece> pieces;
 
     @CreationTimestamp
@@ -11,7 +11,7 @@ import lombok.Setter;
 @Setter
 @Table(name = "envoi_pieces")
 public class EnvoiPiece extends Piece {
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "envoi_id", nullable = false)
     private Envoi envoi;
 }
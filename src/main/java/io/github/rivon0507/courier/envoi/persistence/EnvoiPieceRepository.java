@@ -1,10 +1,12 @@
 package io.github.rivon0507.courier.envoi.persistence;
 
+import io.github.rivon0507.courier.common.domain.PieceTotals;
 import io.github.rivon0507.courier.envoi.domain.Envoi;
 import io.github.rivon0507.courier.envoi.domain.EnvoiPiece;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
@@ -14,7 +16,21 @@ import java.util.List;
 public interface EnvoiPieceRepository extends JpaRepository<EnvoiPiece, Long> {
     List<EnvoiPiece> findAllByEnvoiAndIdIn(Envoi envoi, Collection<Long> ids);
 
-    void deleteAllByEnvoiAndIdIn(Envoi envoi, Collection<Long> ids);
+    List<EnvoiPiece> deleteAllByEnvoiAndIdIn(Envoi envoi, Collection<Long> ids);
 
-    Page<EnvoiPiece> findAllByEnvoi(Envoi envoi, Pageable pageable);
+    Slice<EnvoiPiece> findSliceByEnvoi(Envoi envoi, Pageable pageable);
+
+    long countByEnvoi(Envoi envoi);
+
+    /**
+     * The pieces of all the given envois, in one query, ordered by envoi then id.
+     */
+    @Query("select p from EnvoiPiece p where p.envoi in :envois order by p.envoi.id, p.id")
+    List<EnvoiPiece> findAllByEnvoiIn(Collection<Envoi> envois);
+
+    @Query("""
+            select new io.github.rivon0507.courier.common.domain.PieceTotals(count(p), coalesce(sum(p.quantite), 0L))
+            from EnvoiPiece p where p.envoi.id = :envoiId
+            """)
+    PieceTotals findTotalsByEnvoiId(Long envoiId);
 }
@@ -1,18 +1,64 @@
 package io.github.rivon0507.courier.envoi.persistence;
 
+import io.github.rivon0507.courier.envoi.api.EnvoiResponse;
 import io.github.rivon0507.courier.envoi.domain.Envoi;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface EnvoiRepository extends JpaRepository<Envoi, Long> {
-    Page<Envoi> findAllByWorkspace_Id(Long workspaceId, Pageable page);
+    /**
+     * Listing of the envois of a workspace, projected straight into responses: no entity is loaded nor managed.
+     */
+    @Query("""
+            select new io.github.rivon0507.courier.envoi.api.EnvoiResponse(e.id, e.reference, e.destinataire, e.observation, e.dateEnvoi)
+            from Envoi e
+            where e.workspace.id = :workspaceId
+            """)
+    Slice<EnvoiResponse> findSliceByWorkspace_Id(Long workspaceId, Pageable page);
 
     Optional<Envoi> findByIdAndWorkspace_Id(Long id, Long workspaceId);
 
-    void deleteByIdAndWorkspace_Id(Long id, Long workspaceId);
+    /**
+     * Same as {@link #findByIdAndWorkspace_Id(Long, Long)}, with the pieces fetched by the same query.
+     */
+    @EntityGraph(Envoi.WITH_PIECES)
+    Optional<Envoi> findWithPiecesByIdAndWorkspace_Id(Long id, Long workspaceId);
+
+    List<Envoi> findAllByWorkspace_IdAndIdIn(Long workspaceId, Collection<Long> ids);
+
+    long deleteByIdAndWorkspace_Id(Long id, Long workspaceId);
+
+    /**
+     * First page of the cursor listing, projected like {@link #findSliceByWorkspace_Id(Long, Pageable)}.
+     */
+    @Query("""
+            select new io.github.rivon0507.courier.envoi.api.EnvoiResponse(e.id, e.reference, e.destinataire, e.observation, e.dateEnvoi)
+            from Envoi e
+            where e.workspace.id = :workspaceId
+            order by e.dateEnvoi, e.id
+            """)
+    List<EnvoiResponse> findAllByWorkspace_IdOrderByDateEnvoiAscIdAsc(Long workspaceId, Limit limit);
+
+    /**
+     * Keyset continuation of {@link #findAllByWorkspace_IdOrderByDateEnvoiAscIdAsc(Long, Limit)}: the rows that come
+     * after {@code (date, id)}.
+     */
+    @Query("""
+            select new io.github.rivon0507.courier.envoi.api.EnvoiResponse(e.id, e.reference, e.destinataire, e.observation, e.dateEnvoi)
+            from Envoi e
+            where e.workspace.id = :workspaceId and (e.dateEnvoi, e.id) > (:date, :id)
+            order by e.dateEnvoi, e.id
+            """)
+    List<EnvoiResponse> findAllByWorkspaceAfter(Long workspaceId, LocalDate date, Long id, Limit limit);
 }
@@ -14,6 +14,7 @@ public interface EnvoiMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "pieces", ignore = true)
+    @Mapping(target = "reference", ignore = true)
     Envoi fromCreateRequest(EnvoiCreateRequest dto);
 
     @Mapping(target = "envoi", source = "entity")
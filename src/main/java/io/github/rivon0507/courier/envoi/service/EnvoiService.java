@@ -3,9 +3,17 @@ package io.github.rivon0507.courier.envoi.service;
 import io.github.rivon0507.courier.common.api.PieceCreateRequest;
 import io.github.rivon0507.courier.common.api.PieceResponse;
 import io.github.rivon0507.courier.common.api.PieceUpdateRequest;
+import io.github.rivon0507.courier.common.domain.PieceTotals;
 import io.github.rivon0507.courier.common.domain.Workspace;
+import io.github.rivon0507.courier.common.pagination.CursorPagedResponse;
+import io.github.rivon0507.courier.common.pagination.KeysetCursor;
 import io.github.rivon0507.courier.common.pagination.PagedResponse;
+import io.github.rivon0507.courier.common.pagination.SortInfo;
+import io.github.rivon0507.courier.common.pagination.TotalMode;
 import io.github.rivon0507.courier.common.persistence.WorkspaceRepository;
+import io.github.rivon0507.courier.common.service.ApproximateCountService;
+import io.github.rivon0507.courier.common.service.WorkspaceCountersService;
+import io.github.rivon0507.courier.common.service.WorkspaceOwnershipService;
 import io.github.rivon0507.courier.common.web.error.DuplicatePieceIdException;
 import io.github.rivon0507.courier.common.web.error.WorkspaceNotFoundException;
 import io.github.rivon0507.courier.envoi.api.EnvoiCreateRequest;
@@ -20,12 +28,16 @@ import io.github.rivon0507.courier.envoi.web.error.EnvoiNotFoundException;
 import io.github.rivon0507.courier.envoi.web.error.EnvoiPieceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.NonNull;
-import org.springframework.data.domain.Page;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,9 +47,13 @@ public class EnvoiService {
     private final EnvoiPieceMapper pieceMapper;
     private final EnvoiRepository envoiRepository;
     private final WorkspaceRepository workspaceRepository;
+    private final WorkspaceOwnershipService workspaceOwnershipService;
+    private final ApproximateCountService approximateCountService;
+    private final WorkspaceCountersService workspaceCountersService;
     private final EnvoiPieceMapper envoiPieceMapper;
     private final EnvoiPieceRepository envoiPieceRepository;
 
+    @Transactional
     public EnvoiDetailsResponse create(EnvoiCreateRequest request, Long workspaceId, Long userId) {
         Workspace workspace = findOwnedWorkspaceOrThrow(workspaceId, userId);
         Envoi envoi = envoiMapper.fromCreateRequest(request);
@@ -49,17 +65,53 @@ public class EnvoiService {
                     .toList();
             envoi.setPieces(pieces);
         }
-        envoiRepository.save(envoi);
-        envoi.setReference("ENVOI-%d".formatted(envoi.getId()));
-        envoiRepository.save(envoi);
+        // Flushed so that the reference generated by the database is read back before mapping the response
+        envoiRepository.saveAndFlush(envoi);
+        workspaceCountersService.recordEnvois(workspaceId, 1,
+                envoi.getPieces() != null ? PieceTotals.of(envoi.getPieces()) : PieceTotals.NONE);
         return envoiMapper.toDetailsResponse(envoi);
     }
 
-    public PagedResponse<EnvoiResponse> getPage(Pageable page, Long workspaceId, Long userId) {
+    /**
+     * Lists the envois of a workspace, with the totals requested by {@code totalMode}.
+     */
+    @Transactional(readOnly = true)
+    public PagedResponse<EnvoiResponse> getPage(Pageable page, TotalMode totalMode, Long workspaceId, Long userId) {
+        ensureWorkspaceBelongsToUser(workspaceId, userId);
+        Slice<EnvoiResponse> envois = envoiRepository.findSliceByWorkspace_Id(workspaceId, page);
+        return switch (totalMode) {
+            // The total comes from the workspace counters instead of a count(*); being exact and as cheap as an
+            // estimate, it serves both modes
+            case EXACT, ESTIMATE -> PagedResponse.fromPage(PageableExecutionUtils.getPage(
+                    envois.getContent(), page, () -> workspaceCountersService.envoiCount(workspaceId)));
+            case NONE -> PagedResponse.fromSlice(envois);
+        };
+    }
+
+    /**
+     * Lists the envois of a workspace by date then id, starting after the given cursor.
+     *
+     * @param cursor   the {@code nextCursor} of the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of envois to return
+     */
+    @Transactional(readOnly = true)
+    public CursorPagedResponse<EnvoiResponse> getCursorPage(@Nullable String cursor, int pageSize, Long workspaceId, Long userId) {
         ensureWorkspaceBelongsToUser(workspaceId, userId);
-        var envoiResponsePage = envoiRepository.findAllByWorkspace_Id(workspaceId, page)
-                .map(envoiMapper::toResponse);
-        return PagedResponse.fromPage(envoiResponsePage);
+        Limit limit = Limit.of(pageSize + 1);
+        List<EnvoiResponse> envois;
+        if (cursor == null || cursor.isEmpty()) {
+            envois = envoiRepository.findAllByWorkspace_IdOrderByDateEnvoiAscIdAsc(workspaceId, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            envois = envoiRepository.findAllByWorkspaceAfter(workspaceId, after.date(), after.id(), limit);
+        }
+        return CursorPagedResponse.fromRows(
+                envois,
+                pageSize,
+                new SortInfo("dateEnvoi", SortInfo.Direction.ASC),
+                envoi -> new KeysetCursor(envoi.dateEnvoi(), envoi.id()),
+                Function.identity()
+        );
     }
 
     public EnvoiResponse update(Long envoiId, EnvoiUpdateRequest requestBody, Long workspaceId, Long userId) {
@@ -74,9 +126,12 @@ public class EnvoiService {
     @Transactional
     public void delete(Long envoiId, Long workspaceId, Long userId) {
         ensureWorkspaceBelongsToUser(workspaceId, userId);
-        envoiRepository.deleteByIdAndWorkspace_Id(envoiId, workspaceId);
+        PieceTotals pieces = envoiPieceRepository.findTotalsByEnvoiId(envoiId);
+        long deleted = envoiRepository.deleteByIdAndWorkspace_Id(envoiId, workspaceId);
+        if (deleted > 0) workspaceCountersService.recordEnvois(workspaceId, -deleted, pieces.negate());
     }
 
+    @Transactional(readOnly = true)
     public EnvoiResponse get(Long envoiId, Long workspaceId, Long userId) {
         ensureWorkspaceBelongsToUser(workspaceId, userId);
         Envoi envoi = envoiRepository.findByIdAndWorkspace_Id(envoiId, workspaceId)
@@ -84,6 +139,41 @@ public class EnvoiService {
         return envoiMapper.toResponse(envoi);
     }
 
+    /**
+     * Same as {@link #get(Long, Long, Long)}, with the pieces of the envoi, loaded by the same query.
+     */
+    @Transactional(readOnly = true)
+    public EnvoiDetailsResponse getDetails(Long envoiId, Long workspaceId, Long userId) {
+        ensureWorkspaceBelongsToUser(workspaceId, userId);
+        Envoi envoi = envoiRepository.findWithPiecesByIdAndWorkspace_Id(envoiId, workspaceId)
+                .orElseThrow(EnvoiNotFoundException::new);
+        return envoiMapper.toDetailsResponse(envoi);
+    }
+
+    /**
+     * Returns the envois with the given ids and their pieces, in the requested order, with one query for the envois
+     * and one for all their pieces. Ids that do not match a envoi of the workspace are left out.
+     */
+    @Transactional(readOnly = true)
+    public List<EnvoiDetailsResponse> batchGet(List<Long> envoiIds, Long workspaceId, Long userId) {
+        ensureWorkspaceBelongsToUser(workspaceId, userId);
+        List<Envoi> envois = envoiRepository.findAllByWorkspace_IdAndIdIn(workspaceId, envoiIds);
+        if (envois.isEmpty()) return List.of();
+
+        // The envois are managed by this transaction, so the pieces' envoi is resolved without any further query
+        Map<Long, List<EnvoiPiece>> piecesByEnvoiId = envoiPieceRepository.findAllByEnvoiIn(envois).stream()
+                .collect(Collectors.groupingBy(piece -> piece.getEnvoi().getId()));
+        Map<Long, Envoi> envoisById = envois.stream().collect(Collectors.toMap(Envoi::getId, envoi -> envoi));
+        return envoiIds.stream()
+                .distinct()
+                .map(envoisById::get)
+                .filter(Objects::nonNull)
+                .map(envoi -> new EnvoiDetailsResponse(
+                        envoiMapper.toResponse(envoi),
+                        envoiPieceMapper.toResponseList(piecesByEnvoiId.getOrDefault(envoi.getId(), List.of()))))
+                .toList();
+    }
+
     @Transactional
     public List<PieceResponse> createPieces(Long envoiId, List<PieceCreateRequest> request, Long workspaceId, Long userId) {
         ensureWorkspaceBelongsToUser(workspaceId, userId);
@@ -98,6 +188,7 @@ public class EnvoiService {
                 })
                 .collect(Collectors.toList());
         List<EnvoiPiece> savedPieces = envoiPieceRepository.saveAllAndFlush(pieceList);
+        workspaceCountersService.recordEnvois(workspaceId, 0, PieceTotals.of(savedPieces));
         return envoiPieceMapper.toResponseList(savedPieces);
     }
 
@@ -110,8 +201,9 @@ public class EnvoiService {
         List<EnvoiPiece> envoiPieces = envoiPieceRepository.findAllByEnvoiAndIdIn(envoi, ids);
         Map<Long, EnvoiPiece> pieceMap = envoiPieces.stream().collect(Collectors.toMap(EnvoiPiece::getId, piece -> piece));
 
+        PieceTotals before = PieceTotals.of(envoiPieces);
         Set<Long> seenIds = new HashSet<>(pieceMap.size());
-        return request.stream()
+        List<PieceResponse> responses = request.stream()
                 .map(r -> {
                     EnvoiPiece piece = pieceMap.get(r.id());
                     if (piece == null) throw new EnvoiPieceNotFoundException();
@@ -119,6 +211,8 @@ public class EnvoiService {
                     envoiPieceMapper.updateFromRequest(piece, r);
                     return envoiPieceMapper.toResponse(piece);
                 }).toList();
+        workspaceCountersService.recordEnvois(workspaceId, 0, PieceTotals.of(envoiPieces).minus(before));
+        return responses;
     }
 
     @Transactional
@@ -126,15 +220,26 @@ public class EnvoiService {
         ensureWorkspaceBelongsToUser(workspaceId, userId);
         Envoi envoi = envoiRepository.findByIdAndWorkspace_Id(envoiId, workspaceId)
                 .orElseThrow(EnvoiNotFoundException::new);
-        envoiPieceRepository.deleteAllByEnvoiAndIdIn(envoi, pieceIds);
+        List<EnvoiPiece> deleted = envoiPieceRepository.deleteAllByEnvoiAndIdIn(envoi, pieceIds);
+        workspaceCountersService.recordEnvois(workspaceId, 0, PieceTotals.of(deleted).negate());
     }
 
-    public PagedResponse<PieceResponse> getPiecesPage(Long envoiId, Pageable page, Long workspaceId, Long userId) {
+    /**
+     * Lists the pieces of a envoi, with the totals requested by {@code totalMode}.
+     */
+    @Transactional(readOnly = true)
+    public PagedResponse<PieceResponse> getPiecesPage(Long envoiId, Pageable page, TotalMode totalMode, Long workspaceId, Long userId) {
         ensureWorkspaceBelongsToUser(workspaceId, userId);
         Envoi envoi = envoiRepository.findByIdAndWorkspace_Id(envoiId, workspaceId)
                 .orElseThrow(EnvoiNotFoundException::new);
-        Page<PieceResponse> pieces = envoiPieceRepository.findAllByEnvoi(envoi, page).map(envoiPieceMapper::toResponse);
-        return PagedResponse.fromPage(pieces);
+        Slice<PieceResponse> pieces = envoiPieceRepository.findSliceByEnvoi(envoi, page).map(envoiPieceMapper::toResponse);
+        return switch (totalMode) {
+            case EXACT -> PagedResponse.fromPage(PageableExecutionUtils.getPage(
+                    pieces.getContent(), page, () -> envoiPieceRepository.countByEnvoi(envoi)));
+            case NONE -> PagedResponse.fromSlice(pieces);
+            case ESTIMATE -> PagedResponse.fromSlice(pieces, approximateCountService.count("envoi-pieces", envoiId,
+                    () -> envoiPieceRepository.countByEnvoi(envoi)));
+        };
     }
 
     private @NonNull Workspace findOwnedWorkspaceOrThrow(Long workspaceId, Long userId) {
@@ -144,6 +249,6 @@ public class EnvoiService {
     }
 
     private void ensureWorkspaceBelongsToUser(Long workspaceId, Long userId) {
-        if (!workspaceRepository.existsByIdAndOwner_Id(workspaceId, userId)) throw new WorkspaceNotFoundException();
+        workspaceOwnershipService.ensureWorkspaceBelongsToUser(workspaceId, userId);
     }
 }
@@ -0,0 +1,37 @@
+package io.github.rivon0507.courier.reception;
+
+import io.github.rivon0507.courier.common.annotation.CurrentUserId;
+import io.github.rivon0507.courier.common.api.BatchGetRequest;
+import io.github.rivon0507.courier.reception.api.ReceptionDetailsResponse;
+import io.github.rivon0507.courier.reception.service.ReceptionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Batch operations on the receptions of a workspace. Mapped apart from {@link ReceptionController}: a custom method such as
+ * {@code receptions:batchGet} is part of the collection's path segment, which a method mapping can only append to.
+ */
+@RestController
+@RequestMapping("/workspaces/{workspaceId}")
+@RequiredArgsConstructor
+public class ReceptionBatchController {
+
+    private final ReceptionService receptionService;
+
+    /**
+     * Returns the receptions with the given ids and their pieces, in the requested order. Ids that do not match a
+     * reception of the workspace are left out.
+     */
+    @PostMapping("/receptions:batchGet")
+    public ResponseEntity<List<ReceptionDetailsResponse>> batchGet(
+            @Valid @RequestBody BatchGetRequest requestBody,
+            @PathVariable Long workspaceId,
+            @CurrentUserId Long userId) {
+
+        return ResponseEntity.ok(receptionService.batchGet(requestBody.ids(), workspaceId, userId));
+    }
+}
@@ -1,13 +1,17 @@
 package io.github.rivon0507.courier.reception;
 
 import io.github.rivon0507.courier.common.annotation.CurrentUserId;
+import io.github.rivon0507.courier.common.pagination.CursorPagedResponse;
 import io.github.rivon0507.courier.common.pagination.PagedResponse;
+import io.github.rivon0507.courier.common.pagination.TotalMode;
 import io.github.rivon0507.courier.reception.api.ReceptionCreateRequest;
 import io.github.rivon0507.courier.reception.api.ReceptionDetailsResponse;
 import io.github.rivon0507.courier.reception.api.ReceptionResponse;
 import io.github.rivon0507.courier.reception.api.ReceptionUpdateRequest;
 import io.github.rivon0507.courier.reception.service.ReceptionService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
@@ -47,13 +51,39 @@ class ReceptionController {
         return ResponseEntity.ok(receptionService.get(receptionId, workspaceId, userId));
     }
 
+    /**
+     * Details mode of {@link #get}, selected by {@code include=pieces}: the reception and all its pieces in one response.
+     */
+    @GetMapping(value = "/{receptionId}", params = "include=pieces")
+    public ResponseEntity<ReceptionDetailsResponse> getDetails(
+            @PathVariable Long receptionId,
+            @PathVariable Long workspaceId,
+            @CurrentUserId Long userId) {
+        return ResponseEntity.ok(receptionService.getDetails(receptionId, workspaceId, userId));
+    }
+
     @GetMapping
     public ResponseEntity<PagedResponse<ReceptionResponse>> getPage(
             @PageableDefault(sort = "dateReception") Pageable page,
+            @RequestParam(defaultValue = "true") TotalMode withTotal,
+            @PathVariable Long workspaceId,
+            @CurrentUserId Long userId) {
+
+        return ResponseEntity.ok(receptionService.getPage(page, withTotal, workspaceId, userId));
+    }
+
+    /**
+     * Cursor mode of the listing, selected by the presence of the {@code cursor} parameter (empty for the first page).
+     * Unlike offset pages, it costs the same at any depth and does not count the receptions.
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPagedResponse<ReceptionResponse>> getCursorPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int size,
             @PathVariable Long workspaceId,
             @CurrentUserId Long userId) {
 
-        return ResponseEntity.ok(receptionService.getPage(page, workspaceId, userId));
+        return ResponseEntity.ok(receptionService.getCursorPage(cursor, size, workspaceId, userId));
     }
 
     @PutMapping("/{receptionId}")
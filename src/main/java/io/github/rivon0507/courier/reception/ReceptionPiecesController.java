@@ -5,6 +5,7 @@ import io.github.rivon0507.courier.common.api.PieceCreateRequest;
 import io.github.rivon0507.courier.common.api.PieceResponse;
 import io.github.rivon0507.courier.common.api.PieceUpdateRequest;
 import io.github.rivon0507.courier.common.pagination.PagedResponse;
+import io.github.rivon0507.courier.common.pagination.TotalMode;
 import io.github.rivon0507.courier.reception.service.ReceptionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -35,11 +36,12 @@ class ReceptionPiecesController {
     @GetMapping
     public ResponseEntity<PagedResponse<PieceResponse>> getPiecesPage(
             @PageableDefault(sort = "designation") Pageable page,
+            @RequestParam(defaultValue = "true") TotalMode withTotal,
             @PathVariable Long receptionId,
             @PathVariable Long workspaceId,
             @CurrentUserId Long userId) {
 
-        return ResponseEntity.ok(receptionService.getPiecesPage(receptionId, page, workspaceId, userId));
+        return ResponseEntity.ok(receptionService.getPiecesPage(receptionId, page, withTotal, workspaceId, userId));
     }
 
     @PutMapping
@@ -15,9 +15,15 @@ import java.util.List;
 @Getter
 @Setter
 @Table(name = "reception")
+@NamedEntityGraph(name = Reception.WITH_PIECES, attributeNodes = @NamedAttributeNode("pieces"))
 public class Reception {
+    /**
+     * Fetch plan of the details of a reception: the reception and its pieces.
+     */
+    public static final String WITH_PIECES = "Reception.withPieces";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
     @Column(nullable = false)
@@ -29,11 +35,12 @@ public class Reception {
     @Column(nullable = false)
     private LocalDate dateReception;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "workspace_id", nullable = false)
     private Workspace workspace;
 
     @OneToMany(mappedBy = "reception", cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+    @OrderBy("id")
     private List<ReceptionPiece> pieces;
 
     @CreationTimestamp
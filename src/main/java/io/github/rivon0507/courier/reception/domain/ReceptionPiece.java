@@ -2,6 +2,7 @@ package io.github.rivon0507.courier.reception.domain;
 
 import io.github.rivon0507.courier.common.domain.Piece;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -13,7 +14,7 @@ import lombok.Setter;
 @Setter
 @Table(name = "reception_pieces")
 public class ReceptionPiece extends Piece {
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(nullable = false)
     private Reception reception;
 }
\ No newline at end of file
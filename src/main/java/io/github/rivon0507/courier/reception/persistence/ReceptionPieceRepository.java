@@ -1,10 +1,12 @@
 package io.github.rivon0507.courier.reception.persistence;
 
+import io.github.rivon0507.courier.common.domain.PieceTotals;
 import io.github.rivon0507.courier.reception.domain.Reception;
 import io.github.rivon0507.courier.reception.domain.ReceptionPiece;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.Collection;
 import java.util.List;
@@ -12,7 +14,21 @@ import java.util.List;
 public interface ReceptionPieceRepository extends JpaRepository<ReceptionPiece, Long> {
     List<ReceptionPiece> findAllByReceptionAndIdIn(Reception reception, Collection<Long> id);
 
-    Page<ReceptionPiece> findAllByReception(Reception reception, Pageable page);
+    Slice<ReceptionPiece> findSliceByReception(Reception reception, Pageable page);
 
-    void deleteAllByReceptionAndIdIn(Reception reception, Collection<Long> id);
+    long countByReception(Reception reception);
+
+    /**
+     * The pieces of all the given receptions, in one query, ordered by reception then id.
+     */
+    @Query("select p from ReceptionPiece p where p.reception in :receptions order by p.reception.id, p.id")
+    List<ReceptionPiece> findAllByReceptionIn(Collection<Reception> receptions);
+
+    List<ReceptionPiece> deleteAllByReceptionAndIdIn(Reception reception, Collection<Long> id);
+
+    @Query("""
+            select new io.github.rivon0507.courier.common.domain.PieceTotals(count(p), coalesce(sum(p.quantite), 0L))
+            from ReceptionPiece p where p.reception.id = :receptionId
+            """)
+    PieceTotals findTotalsByReceptionId(Long receptionId);
 }
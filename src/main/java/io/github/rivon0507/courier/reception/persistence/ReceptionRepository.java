@@ -1,18 +1,64 @@
 package io.github.rivon0507.courier.reception.persistence;
 
+import io.github.rivon0507.courier.reception.api.ReceptionResponse;
 import io.github.rivon0507.courier.reception.domain.Reception;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ReceptionRepository extends JpaRepository<Reception, Long> {
     Optional<Reception> findByIdAndWorkspace_Id(Long id, Long workspaceId);
 
-    Page<Reception> findAllByWorkspace_Id(Long workspaceId, Pageable page);
+    /**
+     * Same as {@link #findByIdAndWorkspace_Id(Long, Long)}, with the pieces fetched by the same query.
+     */
+    @EntityGraph(Reception.WITH_PIECES)
+    Optional<Reception> findWithPiecesByIdAndWorkspace_Id(Long id, Long workspaceId);
 
-    void deleteByIdAndWorkspace_Id(Long id, Long workspaceId);
+    List<Reception> findAllByWorkspace_IdAndIdIn(Long workspaceId, Collection<Long> ids);
+
+    /**
+     * Listing of the receptions of a workspace, projected straight into responses: no entity is loaded nor managed.
+     */
+    @Query("""
+            select new io.github.rivon0507.courier.reception.api.ReceptionResponse(r.id, r.reference, r.expediteur, r.dateReception)
+            from Reception r
+            where r.workspace.id = :workspaceId
+            """)
+    Slice<ReceptionResponse> findSliceByWorkspace_Id(Long workspaceId, Pageable page);
+
+    long deleteByIdAndWorkspace_Id(Long id, Long workspaceId);
+
+    /**
+     * First page of the cursor listing, projected like {@link #findSliceByWorkspace_Id(Long, Pageable)}.
+     */
+    @Query("""
+            select new io.github.rivon0507.courier.reception.api.ReceptionResponse(r.id, r.reference, r.expediteur, r.dateReception)
+            from Reception r
+            where r.workspace.id = :workspaceId
+            order by r.dateReception, r.id
+            """)
+    List<ReceptionResponse> findAllByWorkspace_IdOrderByDateReceptionAscIdAsc(Long workspaceId, Limit limit);
+
+    /**
+     * Keyset continuation of {@link #findAllByWorkspace_IdOrderByDateReceptionAscIdAsc(Long, Limit)}: the rows that
+     * come after {@code (date, id)}.
+     */
+    @Query("""
+            select new io.github.rivon0507.courier.reception.api.ReceptionResponse(r.id, r.reference, r.expediteur, r.dateReception)
+            from Reception r
+            where r.workspace.id = :workspaceId and (r.dateReception, r.id) > (:date, :id)
+            order by r.dateReception, r.id
+            """)
+    List<ReceptionResponse> findAllByWorkspaceAfter(Long workspaceId, LocalDate date, Long id, Limit limit);
 }
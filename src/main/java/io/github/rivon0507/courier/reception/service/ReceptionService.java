@@ -3,9 +3,17 @@ package io.github.rivon0507.courier.reception.service;
 import io.github.rivon0507.courier.common.api.PieceCreateRequest;
 import io.github.rivon0507.courier.common.api.PieceResponse;
 import io.github.rivon0507.courier.common.api.PieceUpdateRequest;
+import io.github.rivon0507.courier.common.domain.PieceTotals;
 import io.github.rivon0507.courier.common.domain.Workspace;
+import io.github.rivon0507.courier.common.pagination.CursorPagedResponse;
+import io.github.rivon0507.courier.common.pagination.KeysetCursor;
 import io.github.rivon0507.courier.common.pagination.PagedResponse;
+import io.github.rivon0507.courier.common.pagination.SortInfo;
+import io.github.rivon0507.courier.common.pagination.TotalMode;
 import io.github.rivon0507.courier.common.persistence.WorkspaceRepository;
+import io.github.rivon0507.courier.common.service.ApproximateCountService;
+import io.github.rivon0507.courier.common.service.WorkspaceCountersService;
+import io.github.rivon0507.courier.common.service.WorkspaceOwnershipService;
 import io.github.rivon0507.courier.common.web.error.DuplicatePieceIdException;
 import io.github.rivon0507.courier.common.web.error.WorkspaceNotFoundException;
 import io.github.rivon0507.courier.reception.api.ReceptionCreateRequest;
@@ -20,12 +28,16 @@ import io.github.rivon0507.courier.reception.web.error.ReceptionNotFoundExceptio
 import io.github.rivon0507.courier.reception.web.error.ReceptionPieceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.NonNull;
-import org.springframework.data.domain.Page;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,12 +45,16 @@ import java.util.stream.Collectors;
 public class ReceptionService {
 
     private final WorkspaceRepository workspaceRepository;
+    private final WorkspaceOwnershipService workspaceOwnershipService;
+    private final ApproximateCountService approximateCountService;
+    private final WorkspaceCountersService workspaceCountersService;
     private final ReceptionRepository receptionRepository;
     private final ReceptionPieceMapper pieceMapper;
     private final ReceptionMapper receptionMapper;
     private final ReceptionPieceMapper receptionPieceMapper;
     private final ReceptionPieceRepository receptionPieceRepository;
 
+    @Transactional
     public ReceptionDetailsResponse create(ReceptionCreateRequest request, Long workspaceId, Long userId) {
         Workspace workspace = findOwnedWorkspaceOrThrow(workspaceId, userId);
         Reception reception = receptionMapper.fromCreateRequest(request);
@@ -51,9 +67,12 @@ public class ReceptionService {
             reception.setPieces(pieces);
         }
         receptionRepository.save(reception);
+        workspaceCountersService.recordReceptions(workspaceId, 1,
+                reception.getPieces() != null ? PieceTotals.of(reception.getPieces()) : PieceTotals.NONE);
         return receptionMapper.toDetailsResponse(reception);
     }
 
+    @Transactional(readOnly = true)
     public ReceptionResponse get(Long receptionId, Long workspaceId, Long userId) {
         ensureWorkspaceBelongsToUser(workspaceId, userId);
         Reception reception = receptionRepository.findByIdAndWorkspace_Id(receptionId, workspaceId)
@@ -61,11 +80,81 @@ public class ReceptionService {
         return receptionMapper.toResponse(reception);
     }
 
-    public PagedResponse<ReceptionResponse> getPage(Pageable page, Long workspaceId, Long userId) {
+    /**
+     * Same as {@link #get(Long, Long, Long)}, with the pieces of the reception, loaded by the same query.
+     */
+    @Transactional(readOnly = true)
+    public ReceptionDetailsResponse getDetails(Long receptionId, Long workspaceId, Long userId) {
         ensureWorkspaceBelongsToUser(workspaceId, userId);
-        var receptionResponsePage = receptionRepository.findAllByWorkspace_Id(workspaceId, page)
-                .map(receptionMapper::toResponse);
-        return PagedResponse.fromPage(receptionResponsePage);
+        Reception reception = receptionRepository.findWithPiecesByIdAndWorkspace_Id(receptionId, workspaceId)
+                .orElseThrow(ReceptionNotFoundException::new);
+        return receptionMapper.toDetailsResponse(reception);
+    }
+
+    /**
+     * Returns the receptions with the given ids and their pieces, in the requested order, with one query for the receptions
+     * and one for all their pieces. Ids that do not match a reception of the workspace are left out.
+     */
+    @Transactional(readOnly = true)
+    public List<ReceptionDetailsResponse> batchGet(List<Long> receptionIds, Long workspaceId, Long userId) {
+        ensureWorkspaceBelongsToUser(workspaceId, userId);
+        List<Reception> receptions = receptionRepository.findAllByWorkspace_IdAndIdIn(workspaceId, receptionIds);
+        if (receptions.isEmpty()) return List.of();
+
+        // The receptions are managed by this transaction, so the pieces' reception is resolved without any further query
+        Map<Long, List<ReceptionPiece>> piecesByReceptionId = receptionPieceRepository.findAllByReceptionIn(receptions).stream()
+                .collect(Collectors.groupingBy(piece -> piece.getReception().getId()));
+        Map<Long, Reception> receptionsById = receptions.stream().collect(Collectors.toMap(Reception::getId, reception -> reception));
+        return receptionIds.stream()
+                .distinct()
+                .map(receptionsById::get)
+                .filter(Objects::nonNull)
+                .map(reception -> new ReceptionDetailsResponse(
+                        receptionMapper.toResponse(reception),
+                        receptionPieceMapper.toResponseList(piecesByReceptionId.getOrDefault(reception.getId(), List.of()))))
+                .toList();
+    }
+
+    /**
+     * Lists the receptions of a workspace, with the totals requested by {@code totalMode}.
+     */
+    @Transactional(readOnly = true)
+    public PagedResponse<ReceptionResponse> getPage(Pageable page, TotalMode totalMode, Long workspaceId, Long userId) {
+        ensureWorkspaceBelongsToUser(workspaceId, userId);
+        Slice<ReceptionResponse> receptions = receptionRepository.findSliceByWorkspace_Id(workspaceId, page);
+        return switch (totalMode) {
+            // The total comes from the workspace counters instead of a count(*); being exact and as cheap as an
+            // estimate, it serves both modes
+            case EXACT, ESTIMATE -> PagedResponse.fromPage(PageableExecutionUtils.getPage(
+                    receptions.getContent(), page, () -> workspaceCountersService.receptionCount(workspaceId)));
+            case NONE -> PagedResponse.fromSlice(receptions);
+        };
+    }
+
+    /**
+     * Lists the receptions of a workspace by reception date then id, starting after the given cursor.
+     *
+     * @param cursor   the {@code nextCursor} of the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of receptions to return
+     */
+    @Transactional(readOnly = true)
+    public CursorPagedResponse<ReceptionResponse> getCursorPage(@Nullable String cursor, int pageSize, Long workspaceId, Long userId) {
+        ensureWorkspaceBelongsToUser(workspaceId, userId);
+        Limit limit = Limit.of(pageSize + 1);
+        List<ReceptionResponse> receptions;
+        if (cursor == null || cursor.isEmpty()) {
+            receptions = receptionRepository.findAllByWorkspace_IdOrderByDateReceptionAscIdAsc(workspaceId, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            receptions = receptionRepository.findAllByWorkspaceAfter(workspaceId, after.date(), after.id(), limit);
+        }
+        return CursorPagedResponse.fromRows(
+                receptions,
+                pageSize,
+                new SortInfo("dateReception", SortInfo.Direction.ASC),
+                reception -> new KeysetCursor(reception.dateReception(), reception.id()),
+                Function.identity()
+        );
     }
 
     public ReceptionResponse update(Long receptionId, ReceptionUpdateRequest requestBody, Long workspaceId, Long userId) {
@@ -80,7 +169,9 @@ public class ReceptionService {
     @Transactional
     public void delete(Long receptionId, Long workspaceId, Long userId) {
         ensureWorkspaceBelongsToUser(workspaceId, userId);
-        receptionRepository.deleteByIdAndWorkspace_Id(receptionId, workspaceId);
+        PieceTotals pieces = receptionPieceRepository.findTotalsByReceptionId(receptionId);
+        long deleted = receptionRepository.deleteByIdAndWorkspace_Id(receptionId, workspaceId);
+        if (deleted > 0) workspaceCountersService.recordReceptions(workspaceId, -deleted, pieces.negate());
     }
 
     @Transactional
@@ -97,15 +188,26 @@ public class ReceptionService {
                 })
                 .collect(Collectors.toList());
         List<ReceptionPiece> savedPieces = receptionPieceRepository.saveAllAndFlush(pieceList);
+        workspaceCountersService.recordReceptions(workspaceId, 0, PieceTotals.of(savedPieces));
         return receptionPieceMapper.toResponseList(savedPieces);
     }
 
-    public PagedResponse<PieceResponse> getPiecesPage(Long receptionId, Pageable page, Long workspaceId, Long userId) {
+    /**
+     * Lists the pieces of a reception, with the totals requested by {@code totalMode}.
+     */
+    @Transactional(readOnly = true)
+    public PagedResponse<PieceResponse> getPiecesPage(Long receptionId, Pageable page, TotalMode totalMode, Long workspaceId, Long userId) {
         ensureWorkspaceBelongsToUser(workspaceId, userId);
         Reception reception = receptionRepository.findByIdAndWorkspace_Id(receptionId, workspaceId)
                 .orElseThrow(ReceptionNotFoundException::new);
-        Page<PieceResponse> pieces = receptionPieceRepository.findAllByReception(reception, page).map(receptionPieceMapper::toResponse);
-        return PagedResponse.fromPage(pieces);
+        Slice<PieceResponse> pieces = receptionPieceRepository.findSliceByReception(reception, page).map(receptionPieceMapper::toResponse);
+        return switch (totalMode) {
+            case EXACT -> PagedResponse.fromPage(PageableExecutionUtils.getPage(
+                    pieces.getContent(), page, () -> receptionPieceRepository.countByReception(reception)));
+            case NONE -> PagedResponse.fromSlice(pieces);
+            case ESTIMATE -> PagedResponse.fromSlice(pieces, approximateCountService.count("reception-pieces", receptionId,
+                    () -> receptionPieceRepository.countByReception(reception)));
+        };
     }
 
     @Transactional
@@ -117,8 +219,9 @@ public class ReceptionService {
         List<ReceptionPiece> receptionPieces = receptionPieceRepository.findAllByReceptionAndIdIn(reception, ids);
         Map<Long, ReceptionPiece> pieceMap = receptionPieces.stream().collect(Collectors.toMap(ReceptionPiece::getId, piece -> piece));
 
+        PieceTotals before = PieceTotals.of(receptionPieces);
         Set<Long> seenIds = new HashSet<>(pieceMap.size());
-        return request.stream()
+        List<PieceResponse> responses = request.stream()
                 .map(r -> {
                     ReceptionPiece piece = pieceMap.get(r.id());
                     if (piece == null) throw new ReceptionPieceNotFoundException();
@@ -126,6 +229,8 @@ public class ReceptionService {
                     receptionPieceMapper.updateFromRequest(piece, r);
                     return receptionPieceMapper.toResponse(piece);
                 }).toList();
+        workspaceCountersService.recordReceptions(workspaceId, 0, PieceTotals.of(receptionPieces).minus(before));
+        return responses;
     }
 
     @Transactional
@@ -133,7 +238,8 @@ public class ReceptionService {
         ensureWorkspaceBelongsToUser(workspaceId, userId);
         Reception reception = receptionRepository.findByIdAndWorkspace_Id(receptionId, workspaceId)
                 .orElseThrow(ReceptionNotFoundException::new);
-        receptionPieceRepository.deleteAllByReceptionAndIdIn(reception, pieceIds);
+        List<ReceptionPiece> deleted = receptionPieceRepository.deleteAllByReceptionAndIdIn(reception, pieceIds);
+        workspaceCountersService.recordReceptions(workspaceId, 0, PieceTotals.of(deleted).negate());
     }
 
     private @NonNull Workspace findOwnedWorkspaceOrThrow(Long workspaceId, Long userId) {
@@ -143,6 +249,6 @@ public class ReceptionService {
     }
 
     private void ensureWorkspaceBelongsToUser(Long workspaceId, Long userId) {
-        if (!workspaceRepository.existsByIdAndOwner_Id(workspaceId, userId)) throw new WorkspaceNotFoundException();
+        workspaceOwnershipService.ensureWorkspaceBelongsToUser(workspaceId, userId);
     }
 }
@@ -3,30 +3,44 @@ package io.github.rivon0507.courier.security;
 import io.github.rivon0507.courier.common.persistence.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+/**
+ * Loads users for authentication, and stores the rehashed password of a user whose hash was made with an outdated
+ * algorithm or cost (see {@link PasswordEncoders}) after a successful login.
+ */
 @Service
 @RequiredArgsConstructor
-class AppUserDetailsService implements UserDetailsService {
+class AppUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final UserPrincipalService userPrincipalService;
 
     @Override
     @NullMarked
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        var user = userRepository.findUserByEmail(username)
+        return userPrincipalService.findByEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User with email" + username + " does not exist"));
+    }
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, @Nullable String newPassword) {
+        AppUserPrincipal principal = (AppUserPrincipal) user;
+        userRepository.updatePasswordHash(principal.id(), newPassword);
+        userPrincipalService.evict(principal.id());
         return new AppUserPrincipal(
-                user.getId(),
-                user.getEmail(),
-                user.getDisplayName(),
-                user.getRole().name(),
-                user.getPasswordHash(),
-                user.isActive(),
-                user.getDefaultWorkspace().getId()
+                principal.id(),
+                principal.email(),
+                principal.displayName(),
+                principal.role(),
+                newPassword,
+                principal.active(),
+                principal.defaultWorkspaceId()
         );
     }
 }
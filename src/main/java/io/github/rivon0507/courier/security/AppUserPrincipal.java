@@ -1,5 +1,6 @@
 package io.github.rivon0507.courier.security;
 
+import io.github.rivon0507.courier.common.domain.Role;
 import org.jspecify.annotations.NullMarked;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -18,6 +19,19 @@ public record AppUserPrincipal(
         Long defaultWorkspaceId
 ) implements UserDetails {
 
+    /**
+     * Used by the JPQL constructor expressions of {@link io.github.rivon0507.courier.common.persistence.UserRepository}.
+     */
+    public AppUserPrincipal(Long id,
+                            String email,
+                            String displayName,
+                            Role role,
+                            String passwordHash,
+                            boolean active,
+                            Long defaultWorkspaceId) {
+        this(id, email, displayName, role.name(), passwordHash, active, defaultWorkspaceId);
+    }
+
     @Override
     @NullMarked
     public Collection<? extends GrantedAuthority> getAuthorities() {
@@ -0,0 +1,87 @@
+package io.github.rivon0507.courier.security;
+
+import io.github.rivon0507.courier.common.web.error.ServiceOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.jspecify.annotations.Nullable;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+/**
+ * Runs the password operations of a delegate encoder on a dedicated, bounded executor.
+ *
+ * <p>Hashing and verifying passwords is deliberately CPU-expensive. Run on request threads, a burst of logins takes
+ * every core and slows down unrelated requests; here, at most as many operations as the executor has threads run at
+ * once, and a burst only lengthens the queue in front of them. When the queue is full or an operation waits longer
+ * than the timeout, the caller gets a {@link ServiceOverloadedException} instead of waiting on.
+ *
+ * <p>The time spent by each operation, queueing included, is exported as {@code security.password.operation}, tagged
+ * with the operation; the executor itself is monitored as {@code password.hashing}. Closing the encoder shuts the
+ * executor down.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ExecutorService executor;
+    private final Duration timeout;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate,
+                                  ExecutorService executor,
+                                  Duration timeout,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.timeout = timeout;
+        this.encodeTimer = Timer.builder("security.password.operation").tag("operation", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder("security.password.operation").tag("operation", "matches").register(meterRegistry);
+    }
+
+    @Override
+    public @Nullable String encode(@Nullable CharSequence rawPassword) {
+        return run(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(@Nullable CharSequence rawPassword, @Nullable String encodedPassword) {
+        return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(@Nullable String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Timer timer, Callable<T> operation) {
+        Timer.Sample sample = Timer.start();
+        Future<T> future;
+        try {
+            future = executor.submit(operation);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceOverloadedException(timeout);
+        }
+        try {
+            return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ServiceOverloadedException(timeout);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a password operation", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            sample.stop(timer);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.rivon0507.courier.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.github.rivon0507.courier.security.configuration.JwtCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Authenticates bearer tokens like {@link JwtAuthenticationProvider}, but remembers the verified {@link Jwt} and its
+ * authorities until the token expires, so that the requests of a client reusing its access token skip the signature
+ * verification and the authorities conversion.
+ *
+ * <p>Tokens are keyed by their SHA-256 digest. Only successfully verified tokens are cached: an invalid token is
+ * verified, and rejected, every time. A fresh {@link JwtAuthenticationToken} is built for every request, carrying
+ * that request's details. Hit and miss counters are exported as the {@code security.jwt} cache metrics.
+ */
+public class CachingJwtAuthenticationManager implements AuthenticationManager {
+
+    private final JwtAuthenticationProvider provider;
+    private final Clock clock = Clock.systemUTC();
+    private final Cache<String, VerifiedToken> tokens;
+
+    public CachingJwtAuthenticationManager(JwtDecoder decoder,
+                                           Converter<Jwt, ? extends AbstractAuthenticationToken> authenticationConverter,
+                                           JwtCacheProperties properties,
+                                           MeterRegistry meterRegistry) {
+        this(decoder, authenticationConverter, properties, meterRegistry, Ticker.systemTicker());
+    }
+
+    CachingJwtAuthenticationManager(JwtDecoder decoder,
+                                    Converter<Jwt, ? extends AbstractAuthenticationToken> authenticationConverter,
+                                    JwtCacheProperties properties,
+                                    MeterRegistry meterRegistry,
+                                    Ticker ticker) {
+        this.provider = new JwtAuthenticationProvider(decoder);
+        this.provider.setJwtAuthenticationConverter(authenticationConverter);
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .expireAfter(new UntilTokenExpiry())
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokens, "security.jwt");
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) {
+        if (!(authentication instanceof BearerTokenAuthenticationToken bearer)) {
+            return provider.authenticate(authentication);
+        }
+
+        String key = digest(bearer.getToken());
+        VerifiedToken cached = tokens.getIfPresent(key);
+        if (cached != null) {
+            JwtAuthenticationToken result = new JwtAuthenticationToken(cached.jwt(), cached.authorities(), cached.name());
+            result.setDetails(bearer.getDetails());
+            return result;
+        }
+
+        Authentication result = provider.authenticate(bearer);
+        // Tokens without expiry are not cached: nothing would bound how long they are trusted without verification
+        if (result instanceof JwtAuthenticationToken token && token.getToken().getExpiresAt() != null) {
+            tokens.put(key, new VerifiedToken(token.getToken(), List.copyOf(token.getAuthorities()), token.getName()));
+        }
+        return result;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record VerifiedToken(Jwt jwt, Collection<GrantedAuthority> authorities, String name) {
+    }
+
+    @NullMarked
+    private class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            Instant expiresAt = value.jwt().getExpiresAt();
+            return expiresAt == null ? 0 : Math.max(0, Duration.between(clock.instant(), expiresAt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.rivon0507.courier.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.*;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.proc.SingleKeyJWSKeySelector;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.security.PublicKey;
+import java.util.List;
+
+/**
+ * Builds the JWT encoder and decoder from an RSA or EC key, for the configured
+ * {@link io.github.rivon0507.courier.security.configuration.JwtProperties#algorithm()}.
+ *
+ * <p>The key is resolved once: the encoder always signs with it, through a signer Nimbus creates on first use and
+ * reuses, and the decoder only accepts tokens signed with the configured algorithm and verifies them with it, without
+ * any per-token JWK selection.
+ */
+public final class JwtKeys {
+
+    private JwtKeys() {
+    }
+
+    /**
+     * Parses a key from PEM-encoded objects and checks that it can be used with the algorithm.
+     *
+     * @param algorithm the signature algorithm
+     * @param pem       a public key, optionally followed by the matching private key
+     * @return the key, identified by its thumbprint
+     * @throws IllegalStateException if the key is malformed, or of another type or curve than the algorithm needs
+     */
+    public static JWK parse(SignatureAlgorithm algorithm, String pem) {
+        try {
+            return forAlgorithm(algorithm, JWK.parseFromPEMEncodedObjects(pem));
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Failed parsing JWT key", e);
+        }
+    }
+
+    /**
+     * Checks that the key can be used with the algorithm, and tags it with the algorithm and its thumbprint as key id.
+     *
+     * @throws IllegalStateException if the key is of another type or curve than the algorithm needs
+     */
+    public static JWK forAlgorithm(SignatureAlgorithm algorithm, JWK key) {
+        JWSAlgorithm jwsAlgorithm = JWSAlgorithm.parse(algorithm.getName());
+        try {
+            return switch (key) {
+                case RSAKey rsa when JWSAlgorithm.Family.RSA.contains(jwsAlgorithm) -> new RSAKey.Builder(rsa)
+                        .algorithm(jwsAlgorithm)
+                        .keyUse(KeyUse.SIGNATURE)
+                        .keyIDFromThumbprint()
+                        .build();
+                case ECKey ec when Curve.forJWSAlgorithm(jwsAlgorithm).contains(ec.getCurve()) -> new ECKey.Builder(ec)
+                        .algorithm(jwsAlgorithm)
+                        .keyUse(KeyUse.SIGNATURE)
+                        .keyIDFromThumbprint()
+                        .build();
+                default -> throw new IllegalStateException(
+                        "JWT key " + describe(key) + " cannot be used with " + algorithm.getName());
+            };
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Failed computing JWT key thumbprint", e);
+        }
+    }
+
+    /**
+     * @param signingKey a key returned by {@link #forAlgorithm}, holding the private key
+     */
+    public static JwtEncoder encoder(JWK signingKey) {
+        if (!signingKey.isPrivate()) throw new IllegalStateException("JWT signing key has no private key");
+        List<JWK> signingKeys = List.of(signingKey);
+        return new NimbusJwtEncoder((selector, context) -> signingKeys);
+    }
+
+    /**
+     * @param verificationKey a key returned by {@link #forAlgorithm}
+     */
+    public static JwtDecoder decoder(JWK verificationKey) {
+        JWSAlgorithm algorithm = JWSAlgorithm.parse(verificationKey.getAlgorithm().getName());
+        PublicKey publicKey;
+        try {
+            publicKey = switch (verificationKey) {
+                case RSAKey rsa -> rsa.toRSAPublicKey();
+                case ECKey ec -> ec.toECPublicKey();
+                default -> throw new IllegalStateException("Unsupported JWT key " + describe(verificationKey));
+            };
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Failed reading JWT public key", e);
+        }
+
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new SingleKeyJWSKeySelector<>(algorithm, publicKey));
+        // Claims are validated by NimbusJwtDecoder's validators, as with NimbusJwtDecoder.withPublicKey
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        return new NimbusJwtDecoder(processor);
+    }
+
+    private static String describe(JWK key) {
+        return key instanceof ECKey ec ? "EC " + ec.getCurve() : key.getKeyType().getValue();
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.rivon0507.courier.security;
+
+import io.github.rivon0507.courier.security.configuration.PasswordHashingProperties;
+import io.github.rivon0507.courier.security.configuration.PasswordHashingProperties.Algorithm;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Builds the password encoder from {@link PasswordHashingProperties}.
+ */
+@Slf4j
+public final class PasswordEncoders {
+
+    private static final int MIN_TUNED_STRENGTH = 10;
+    private static final int MAX_TUNED_STRENGTH = 16;
+    private static final int CALIBRATION_RUNS = 3;
+    private static final String BCRYPT = "bcrypt";
+    private static final String ARGON2 = "argon2@SpringSecurity_v5_8";
+
+    private PasswordEncoders() {
+    }
+
+    /**
+     * Creates a {@link DelegatingPasswordEncoder} that hashes with the configured algorithm and cost, still verifies
+     * {@code bcrypt} and {@code argon2} hashes made with other settings, and reports those as needing an upgrade.
+     *
+     * @param properties the hashing settings
+     * @return the password encoder
+     */
+    public static PasswordEncoder create(PasswordHashingProperties properties) {
+        int strength = properties.bcryptStrength() > 0
+                ? properties.bcryptStrength()
+                : tuneBCryptStrength(properties.bcryptTargetLatency());
+        String idForEncode = properties.algorithm() == Algorithm.ARGON2 ? ARGON2 : BCRYPT;
+        if (properties.bcryptStrength() > 0) {
+            log.info("Hashing passwords with {} (bcrypt strength {})", idForEncode, strength);
+        } else {
+            log.warn("Hashing passwords with {} (bcrypt strength {}, tuned at startup; other nodes or restarts may pick "
+                    + "another strength, set it explicitly outside development)", idForEncode, strength);
+        }
+
+        return new DelegatingPasswordEncoder(idForEncode, Map.of(
+                BCRYPT, new BCryptPasswordEncoder(strength),
+                ARGON2, Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8()
+        ));
+    }
+
+    /**
+     * Picks the highest bcrypt strength whose hashing takes at most {@code targetLatency} on this machine, between
+     * {@value MIN_TUNED_STRENGTH} and {@value MAX_TUNED_STRENGTH}. Each step doubles the cost, so the measurement stops
+     * at the first strength over budget. Each strength is timed {@value CALIBRATION_RUNS} times and judged on the
+     * median, so that one hash slowed or sped up by the load at startup does not decide the cost.
+     *
+     * <p>The result depends on the machine and its load, and stored hashes are only ever upgraded to a higher cost:
+     * deployments running several nodes should set the strength explicitly, as the {@code prod} profile requires.
+     *
+     * @param targetLatency the time budget of one hash
+     * @return the strength to use
+     */
+    public static int tuneBCryptStrength(Duration targetLatency) {
+        // Warm up at the starting strength so that the first measurement is not inflated
+        medianHashTime(MIN_TUNED_STRENGTH);
+
+        int strength = MIN_TUNED_STRENGTH;
+        while (strength < MAX_TUNED_STRENGTH) {
+            if (medianHashTime(strength + 1).compareTo(targetLatency) > 0) break;
+            strength++;
+        }
+        return strength;
+    }
+
+    private static Duration medianHashTime(int strength) {
+        BCryptPasswordEncoder candidate = new BCryptPasswordEncoder(strength);
+        long[] nanos = new long[CALIBRATION_RUNS];
+        for (int i = 0; i < CALIBRATION_RUNS; i++) {
+            long start = System.nanoTime();
+            candidate.encode("calibration");
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return Duration.ofNanos(nanos[CALIBRATION_RUNS / 2]);
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.rivon0507.courier.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.rivon0507.courier.common.persistence.UserRepository;
+import io.github.rivon0507.courier.security.configuration.UserCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+/**
+ * Loads {@link AppUserPrincipal}s by email at login, with a single query projecting the user and the id of its default
+ * workspace.
+ *
+ * <p>When {@link UserCacheProperties#enabled()}, principals are cached by id in a bounded cache whose entries expire
+ * after a short TTL, with a secondary email → id index. Entries are evicted when a user is updated or deleted through
+ * JPA (see {@link io.github.rivon0507.courier.common.domain.UserPrincipalListener}) or its password hash is replaced,
+ * and again once the transaction making the change completes; the TTL bounds staleness for changes made outside the
+ * application. Hit and miss counters are exported as
+ * the {@code security.user_principal} cache metrics.
+ */
+@Service
+public class UserPrincipalService {
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final Cache<Long, AppUserPrincipal> principals;
+    private final Cache<String, Long> idsByEmail;
+
+    public UserPrincipalService(UserRepository userRepository,
+                                UserCacheProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.enabled = properties.enabled();
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        this.idsByEmail = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .expireAfterWrite(properties.ttl())
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "security.user_principal");
+    }
+
+    public Optional<AppUserPrincipal> findByEmail(String email) {
+        if (!enabled) return userRepository.findPrincipalByEmail(email);
+
+        Long id = idsByEmail.getIfPresent(email);
+        if (id != null) {
+            AppUserPrincipal cached = principals.getIfPresent(id);
+            if (cached != null && cached.email().equals(email)) return Optional.of(cached);
+        }
+        Optional<AppUserPrincipal> principal = userRepository.findPrincipalByEmail(email);
+        principal.ifPresent(this::put);
+        return principal;
+    }
+
+    /**
+     * Forgets the cached principal of a user, so that the next lookup reads it from the database.
+     *
+     * <p>Called from a transaction, the principal is forgotten again once it completes: a lookup made between the
+     * change and its commit still reads the old row, and would otherwise cache it for the whole TTL.
+     *
+     * @param id the user id
+     */
+    public void evict(Long id) {
+        invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(id);
+                }
+            });
+        }
+    }
+
+    private void invalidate(Long id) {
+        AppUserPrincipal cached = principals.getIfPresent(id);
+        if (cached != null) idsByEmail.invalidate(cached.email());
+        principals.invalidate(id);
+    }
+
+    private void put(AppUserPrincipal principal) {
+        principals.put(principal.id(), principal);
+        idsByEmail.put(principal.email(), principal.id());
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.rivon0507.courier.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Checks workspace ownership against the {@value #WORKSPACES_CLAIM} claim of the current access token.
+ *
+ * <p>The claim lists the ids of the workspaces the user owned when the token was issued. It is signed with the rest of
+ * the token, so a workspace listed in it can be trusted without asking the database. A workspace that is not listed
+ * may still have been created after the token was issued, which is why a negative answer is reported as
+ * {@link Verdict#NOT_LISTED} rather than as a definitive "not owned".
+ */
+@Component
+public class WorkspaceClaimVerifier {
+
+    public static final String WORKSPACES_CLAIM = "workspaces";
+
+    public enum Verdict {
+        /** The workspace is listed in the token of the requesting user. */
+        GRANTED,
+        /** The token of the requesting user does not list the workspace, or carries no workspaces claim at all. */
+        NOT_LISTED,
+        /** There is no access token for this user in the current security context (e.g. internal callers). */
+        NO_TOKEN
+    }
+
+    /**
+     * @param workspaceId the workspace being accessed
+     * @param userId      the id of the user making the request
+     * @return what the current access token says about the user owning the workspace
+     */
+    public Verdict verify(Long workspaceId, Long userId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!(authentication instanceof JwtAuthenticationToken jwtAuthentication)) return Verdict.NO_TOKEN;
+        var jwt = jwtAuthentication.getToken();
+        if (!(jwt.getClaim("userId") instanceof Number tokenUserId) || !Objects.equals(tokenUserId.longValue(), userId))
+            return Verdict.NO_TOKEN;
+
+        if (jwt.getClaims().get(WORKSPACES_CLAIM) instanceof Collection<?> workspaceIds) {
+            for (Object id : workspaceIds) {
+                if (id instanceof Number n && n.longValue() == workspaceId) return Verdict.GRANTED;
+            }
+        }
+        return Verdict.NOT_LISTED;
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.rivon0507.courier.security.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the cache of verified access tokens. Bound to properties under the prefix
+ * `app.security.jwt-cache`.
+ *
+ * @param enabled whether verified access tokens are cached at all
+ * @param maxSize maximum number of tokens kept in memory; each entry holds the token, its claims and authorities,
+ *                i.e. a couple of kilobytes
+ */
+@ConfigurationProperties(prefix = "app.security.jwt-cache")
+public record JwtCacheProperties(
+        boolean enabled,
+        long maxSize
+) {
+}
@@ -1,6 +1,7 @@
 package io.github.rivon0507.courier.security.configuration;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
 
 import java.time.Duration;
 
@@ -9,14 +10,23 @@ import java.time.Duration;
  *
  * @param publicKeyUri location (URI or classpath) of the JWT public key used to verify tokens.
  * @param privateKeyUri location (URI or classpath) of the JWT private key used to sign tokens.
+ * @param algorithm algorithm tokens are signed with, e.g. `RS256` with an RSA key pair or `ES256` with a P-256 EC
+ *                  key pair, `RS256` when left empty; tokens signed with another algorithm are rejected
  * @param issuer issuer expected `iss` claim value for incoming tokens
  * @param accessTokenTtl JWT access token's time-to-live
+ * @param workspacesClaimFallback whether a workspace missing from the `workspaces` claim (or a token without that
+ *                                claim) is checked against the database instead of being rejected outright
  */
 @ConfigurationProperties(prefix = "app.security.jwt")
 public record JwtProperties (
         String publicKeyUri,
         String privateKeyUri,
+        SignatureAlgorithm algorithm,
         String issuer,
-        Duration accessTokenTtl
+        Duration accessTokenTtl,
+        boolean workspacesClaimFallback
 ) {
+    public JwtProperties {
+        if (algorithm == null) algorithm = SignatureAlgorithm.RS256;
+    }
 }
@@ -0,0 +1,33 @@
+package io.github.rivon0507.courier.security.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of password hashing: which algorithm new hashes use, at which cost, and the executor hashing and
+ * verification run on. Bound to properties under the prefix `app.security.password-hashing`.
+ *
+ * @param algorithm           the algorithm of new hashes; hashes made with another algorithm or a lower cost are
+ *                            upgraded on the next successful login
+ * @param bcryptStrength      the bcrypt cost (log rounds, 4 to 31), or 0 to pick the highest cost that fits
+ *                            {@code bcryptTargetLatency} on this machine at startup
+ * @param bcryptTargetLatency the time one bcrypt hash may take when the cost is picked at startup
+ * @param threads             how many passwords can be hashed or verified at once, i.e. how many cores auth may take
+ * @param queueCapacity       how many password operations may wait for a thread; beyond that they are rejected. Capped
+ *                            to the connections the pool has left besides the hashing threads
+ * @param timeout             how long a request waits for its password operation before giving up
+ */
+@ConfigurationProperties(prefix = "app.security.password-hashing")
+public record PasswordHashingProperties(
+        Algorithm algorithm,
+        int bcryptStrength,
+        Duration bcryptTargetLatency,
+        int threads,
+        int queueCapacity,
+        Duration timeout
+) {
+    public enum Algorithm {
+        BCRYPT, ARGON2
+    }
+}
@@ -1,15 +1,19 @@
 package io.github.rivon0507.courier.security.configuration;
 
-import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.jwk.JWK;
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
-import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
-import com.nimbusds.jose.proc.SecurityContext;
+import io.github.rivon0507.courier.security.BoundedPasswordEncoder;
+import io.github.rivon0507.courier.security.CachingJwtAuthenticationManager;
+import io.github.rivon0507.courier.security.JwtKeys;
+import io.github.rivon0507.courier.security.PasswordEncoders;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.env.Environment;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
@@ -22,31 +26,36 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.*;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+@Slf4j
 @Configuration
 @EnableMethodSecurity
 public class SecurityConfiguration {
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http,
-                                            Converter<Jwt, ? extends AbstractAuthenticationToken> jwtAuthConverter) {
+                                            Converter<Jwt, ? extends AbstractAuthenticationToken> jwtAuthConverter,
+                                            ObjectProvider<JwtDecoder> jwtDecoder,
+                                            JwtCacheProperties jwtCacheProperties,
+                                            MeterRegistry meterRegistry) {
 
         return http
                 .csrf(AbstractHttpConfigurer::disable)
@@ -68,7 +77,14 @@ public class SecurityConfiguration {
                         .anyRequest().denyAll()
                 )
                 .oauth2ResourceServer(oauth -> oauth
-                        .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthConverter))
+                        .jwt(jwt -> {
+                            if (jwtCacheProperties.enabled()) {
+                                jwt.authenticationManager(new CachingJwtAuthenticationManager(
+                                        jwtDecoder.getObject(), jwtAuthConverter, jwtCacheProperties, meterRegistry));
+                            } else {
+                                jwt.jwtAuthenticationConverter(jwtAuthConverter);
+                            }
+                        })
                 )
                 .httpBasic(AbstractHttpConfigurer::disable)
                 .formLogin(AbstractHttpConfigurer::disable)
@@ -79,21 +95,17 @@ public class SecurityConfiguration {
     @Bean
     @ConditionalOnExpression("!'${app.security.jwt.public-key-uri}'.isBlank()")
     public JwtDecoder jwtDecoder(JwtProperties props, ResourceLoader resourceLoader) {
-        RSAPublicKey publicKey = readRsaPublicKey(props.publicKeyUri(), resourceLoader);
-        return NimbusJwtDecoder.withPublicKey(publicKey).build();
+        JWK publicKey = JwtKeys.parse(props.algorithm(), readPem(resourceLoader, props.publicKeyUri()));
+        return JwtKeys.decoder(publicKey);
     }
 
     @Bean
     @ConditionalOnExpression("!'${app.security.jwt.public-key-uri}'.isBlank() && !'${app.security.jwt.private-key-uri}'.isBlank()")
     public JwtEncoder jwtEncoder(JwtProperties props, ResourceLoader resourceLoader) {
-        RSAPublicKey publicKey = readRsaPublicKey(props.publicKeyUri(), resourceLoader);
-        RSAPrivateKey privateKey = readRsaPrivateKey(props.privateKeyUri(), resourceLoader);
-
-        JWK jwk = new RSAKey.Builder(publicKey).privateKey(privateKey).keyID("courier-dev").build();
-        JWKSet jwkSet = new JWKSet(jwk);
-        ImmutableJWKSet<SecurityContext> jwkSource = new ImmutableJWKSet<>(jwkSet);
-
-        return new NimbusJwtEncoder(jwkSource);
+        // EC private keys do not carry their public key: both are parsed together
+        JWK signingKey = JwtKeys.parse(props.algorithm(), readPem(resourceLoader, props.publicKeyUri())
+                + "\n" + readPem(resourceLoader, props.privateKeyUri()));
+        return JwtKeys.encoder(signingKey);
     }
 
     @Bean
@@ -134,8 +146,29 @@ public class SecurityConfiguration {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties properties,
+                                           Environment environment,
+                                           MeterRegistry meterRegistry) {
+        // Every request leaving the hashing executor goes on to take a database connection; queueing more of them than
+        // the pool has connections to spare next to the hashing threads would only move the wait to the pool
+        int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        int queueCapacity = Math.clamp(poolSize - properties.threads(), 1, properties.queueCapacity());
+        if (queueCapacity < properties.queueCapacity()) {
+            log.warn("Password hashing queue capped to {} for a connection pool of {}", queueCapacity, poolSize);
+        }
+        // Not a bean of its own: an Executor bean would replace Spring Boot's application task executor
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                properties.threads(), properties.threads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hashing-")
+        );
+        return new BoundedPasswordEncoder(
+                PasswordEncoders.create(properties),
+                ExecutorServiceMetrics.monitor(meterRegistry, executor, "password.hashing"),
+                properties.timeout(),
+                meterRegistry
+        );
     }
 
     @Bean
@@ -143,25 +176,12 @@ public class SecurityConfiguration {
         return config.getAuthenticationManager();
     }
 
-    private static RSAPublicKey readRsaPublicKey(String location, ResourceLoader loader) {
-        Resource resource = loader.getResource(location);
-        try {
-            String pem = resource.getContentAsString(StandardCharsets.UTF_8);
-            RSAKey rsaKey = RSAKey.parseFromPEMEncodedObjects(pem).toRSAKey();
-            return rsaKey.toRSAPublicKey();
-        } catch (IOException | JOSEException e) {
-            throw new IllegalStateException("Failed reading RSA public key from " + location, e);
-        }
-    }
-
-    private static RSAPrivateKey readRsaPrivateKey(String location, ResourceLoader loader) {
+    private static String readPem(ResourceLoader loader, String location) {
         Resource resource = loader.getResource(location);
         try {
-            String pem = resource.getContentAsString(StandardCharsets.UTF_8);
-            RSAKey rsaKey = RSAKey.parseFromPEMEncodedObjects(pem).toRSAKey();
-            return rsaKey.toRSAPrivateKey();
-        } catch (IOException | JOSEException e) {
-            throw new IllegalStateException("Failed loading RSA private key from " + location, e);
+            return resource.getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed reading JWT key from " + location, e);
         }
     }
 }
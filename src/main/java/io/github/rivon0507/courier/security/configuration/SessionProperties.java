@@ -4,10 +4,17 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 
 import java.time.Duration;
 
+/**
+ * @param refreshGraceWindow     how long the result of a refresh is replayed to requests presenting the token it
+ *                               rotated, instead of treating them as reuse; zero disables the grace window
+ * @param refreshGraceMaxEntries the maximum number of refresh results kept for the grace window
+ */
 @ConfigurationProperties(prefix = "app.security.session")
 public record SessionProperties (
         Duration refreshTokenTtl,
         Duration deviceIdMaxAge,
-        Boolean enableSecureCookies
+        Boolean enableSecureCookies,
+        Duration refreshGraceWindow,
+        long refreshGraceMaxEntries
 ) {
 }
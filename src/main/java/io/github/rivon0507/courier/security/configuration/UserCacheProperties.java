@@ -0,0 +1,21 @@
+package io.github.rivon0507.courier.security.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the cache of authenticated users' principals. Bound to properties under the prefix
+ * `app.security.user-cache`.
+ *
+ * @param enabled whether principals are cached at all
+ * @param maxSize maximum number of users kept in memory
+ * @param ttl     time after which a cached principal is evicted and loaded again
+ */
+@ConfigurationProperties(prefix = "app.security.user-cache")
+public record UserCacheProperties(
+        boolean enabled,
+        long maxSize,
+        Duration ttl
+) {
+}
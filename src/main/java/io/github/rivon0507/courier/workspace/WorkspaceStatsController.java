@@ -0,0 +1,26 @@
+package io.github.rivon0507.courier.workspace;
+
+import io.github.rivon0507.courier.common.annotation.CurrentUserId;
+import io.github.rivon0507.courier.common.api.WorkspaceStatsResponse;
+import io.github.rivon0507.courier.common.service.WorkspaceCountersService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/workspaces/{workspaceId}/stats")
+@RequiredArgsConstructor
+class WorkspaceStatsController {
+
+    private final WorkspaceCountersService workspaceCountersService;
+
+    @GetMapping
+    public ResponseEntity<WorkspaceStatsResponse> getStats(
+            @PathVariable Long workspaceId,
+            @CurrentUserId Long userId) {
+        return ResponseEntity.ok(workspaceCountersService.getStats(workspaceId, userId));
+    }
+}
@@ -0,0 +1,31 @@
+-- Ids of envois, receptions and their pieces are now allocated by Hibernate from these sequences, 50 at a time
+-- (pooled-lo optimizer), instead of by IDENTITY columns. Knowing the ids before the INSERT lets Hibernate batch them.
+-- The increments must match the allocation size of the entities.
+-- The sequences are not owned by the id columns: TRUNCATE ... RESTART IDENTITY must not rewind them while the
+-- application still holds a block of ids.
+
+ALTER TABLE envoi ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE envoi_seq INCREMENT BY 50;
+SELECT setval('envoi_seq', coalesce(max(id), 0) + 1, false) FROM envoi;
+ALTER TABLE envoi ALTER COLUMN id SET DEFAULT nextval('envoi_seq');
+
+ALTER TABLE envoi_pieces ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE envoi_piece_seq INCREMENT BY 50;
+SELECT setval('envoi_piece_seq', coalesce(max(id), 0) + 1, false) FROM envoi_pieces;
+ALTER TABLE envoi_pieces ALTER COLUMN id SET DEFAULT nextval('envoi_piece_seq');
+
+ALTER TABLE reception ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE reception_seq INCREMENT BY 50;
+SELECT setval('reception_seq', coalesce(max(id), 0) + 1, false) FROM reception;
+ALTER TABLE reception ALTER COLUMN id SET DEFAULT nextval('reception_seq');
+
+ALTER TABLE reception_pieces ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE reception_piece_seq INCREMENT BY 50;
+SELECT setval('reception_piece_seq', coalesce(max(id), 0) + 1, false) FROM reception_pieces;
+ALTER TABLE reception_pieces ALTER COLUMN id SET DEFAULT nextval('reception_piece_seq');
+
+-- fk_reception_workspace was declared on reception.id instead of reception.workspace_id, which sequence-allocated
+-- ids would now violate
+ALTER TABLE reception
+    DROP CONSTRAINT fk_reception_workspace,
+    ADD CONSTRAINT fk_reception_workspace FOREIGN KEY (workspace_id) REFERENCES workspace (id);
@@ -0,0 +1,7 @@
+-- Cursor pagination walks the listings in (date, id) order within a workspace.
+-- These indexes also serve lookups by workspace_id alone, which makes the single-column ones redundant.
+CREATE INDEX idx_envoi_workspace_date_id ON envoi (workspace_id, date_envoi, id);
+DROP INDEX idx_envoi_workspace_id;
+
+CREATE INDEX idx_reception_workspace_date_id ON reception (workspace_id, date_reception, id);
+DROP INDEX idx_reception_workspace;
@@ -0,0 +1,21 @@
+-- Denormalized per-workspace totals, maintained by the application in the same transactions as the rows they count
+CREATE TABLE workspace_counters
+(
+    workspace_id    bigint PRIMARY KEY,
+    envoi_count     bigint      NOT NULL DEFAULT 0,
+    reception_count bigint      NOT NULL DEFAULT 0,
+    piece_count     bigint      NOT NULL DEFAULT 0,
+    total_quantite  bigint      NOT NULL DEFAULT 0,
+    updated_at      timestamptz NOT NULL DEFAULT now(),
+    CONSTRAINT fk_workspace_counters_workspace FOREIGN KEY (workspace_id) REFERENCES workspace (id) ON DELETE CASCADE
+);
+
+INSERT INTO workspace_counters (workspace_id, envoi_count, reception_count, piece_count, total_quantite)
+SELECT w.id,
+       (SELECT count(*) FROM envoi e WHERE e.workspace_id = w.id),
+       (SELECT count(*) FROM reception r WHERE r.workspace_id = w.id),
+       (SELECT count(*) FROM envoi_pieces p JOIN envoi e ON e.id = p.envoi_id WHERE e.workspace_id = w.id)
+           + (SELECT count(*) FROM reception_pieces p JOIN reception r ON r.id = p.reception_id WHERE r.workspace_id = w.id),
+       (SELECT coalesce(sum(p.quantite), 0) FROM envoi_pieces p JOIN envoi e ON e.id = p.envoi_id WHERE e.workspace_id = w.id)
+           + (SELECT coalesce(sum(p.quantite), 0) FROM reception_pieces p JOIN reception r ON r.id = p.reception_id WHERE r.workspace_id = w.id)
+FROM workspace w;
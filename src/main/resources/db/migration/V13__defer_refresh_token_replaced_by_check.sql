@@ -0,0 +1,4 @@
+-- Rotation revokes the old token and inserts its replacement in a single statement, so the reference from the old
+-- token to the new one can only be checked once both rows exist.
+ALTER TABLE refresh_tokens
+    ALTER CONSTRAINT fk_refresh_tokens_replaced_by DEFERRABLE INITIALLY DEFERRED;
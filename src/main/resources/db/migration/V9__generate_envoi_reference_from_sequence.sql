@@ -0,0 +1,16 @@
+-- The envoi reference used to be written by the application in a second UPDATE once the id was known.
+-- It is now generated by the database as part of the INSERT.
+-- The sequence is owned by the column so that TRUNCATE ... RESTART IDENTITY restarts it along with the ids.
+CREATE SEQUENCE envoi_reference_seq OWNED BY envoi.reference;
+SELECT setval('envoi_reference_seq', coalesce(max(id), 0) + 1, false) FROM envoi;
+
+UPDATE envoi SET reference = 'ENVOI-' || id WHERE reference IS NULL;
+
+ALTER TABLE envoi
+    ALTER COLUMN reference SET DEFAULT 'ENVOI-' || nextval('envoi_reference_seq'),
+    ALTER COLUMN reference SET NOT NULL;
+
+-- fk_envoi_workspace was declared on envoi.id instead of envoi.workspace_id
+ALTER TABLE envoi
+    DROP CONSTRAINT fk_envoi_workspace,
+    ADD CONSTRAINT fk_envoi_workspace FOREIGN KEY (workspace_id) REFERENCES workspace (id);
@@ -0,0 +1,100 @@
+package io.github.rivon0507.courier.auth.service;
+
+import io.github.rivon0507.courier.auth.web.error.InvalidSessionException;
+import io.github.rivon0507.courier.security.configuration.SessionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RefreshGraceCacheTest {
+
+    private static final byte[] TOKEN_HASH = {1, 2, 3};
+    private static final UUID DEVICE_ID = UUID.fromString("693e5f1b-914b-49b7-8362-8855de4a5cf9");
+
+    private final AtomicInteger rotations = new AtomicInteger();
+
+    private static RefreshGraceCache newCache(Duration graceWindow) {
+        var properties = new SessionProperties(Duration.ofDays(30), Duration.ofDays(730), false, graceWindow, 100);
+        return new RefreshGraceCache(properties, new SimpleMeterRegistry());
+    }
+
+    private Supplier<AuthSessionResult> rotation() {
+        return () -> {
+            int n = rotations.incrementAndGet();
+            return new AuthSessionResult(null, new AuthSessionResult.RefreshCookies("token-" + n, DEVICE_ID.toString()));
+        };
+    }
+
+    @Test
+    void token_presented_again_within_window_gets_the_same_result() {
+        RefreshGraceCache cache = newCache(Duration.ofSeconds(10));
+
+        AuthSessionResult first = cache.getOrRotate(TOKEN_HASH, DEVICE_ID, rotation());
+        AuthSessionResult second = cache.getOrRotate(TOKEN_HASH.clone(), DEVICE_ID, rotation());
+
+        assertThat(second).isSameAs(first);
+        assertThat(rotations).hasValue(1);
+    }
+
+    @Test
+    void token_presented_from_another_device_is_not_replayed() {
+        RefreshGraceCache cache = newCache(Duration.ofSeconds(10));
+
+        cache.getOrRotate(TOKEN_HASH, DEVICE_ID, rotation());
+        cache.getOrRotate(TOKEN_HASH, UUID.randomUUID(), rotation());
+
+        assertThat(rotations).hasValue(2);
+    }
+
+    @Test
+    void failed_rotation_is_not_cached() {
+        RefreshGraceCache cache = newCache(Duration.ofSeconds(10));
+
+        assertThatThrownBy(() -> cache.getOrRotate(TOKEN_HASH, DEVICE_ID, () -> {
+            throw new InvalidSessionException("refresh_token was revoked");
+        })).isInstanceOf(InvalidSessionException.class);
+        cache.getOrRotate(TOKEN_HASH, DEVICE_ID, rotation());
+
+        assertThat(rotations).hasValue(1);
+    }
+
+    @Test
+    void rotation_failing_with_an_error_does_not_block_later_requests() {
+        RefreshGraceCache cache = newCache(Duration.ofSeconds(10));
+
+        assertThatThrownBy(() -> cache.getOrRotate(TOKEN_HASH, DEVICE_ID, () -> {
+            throw new StackOverflowError();
+        })).isInstanceOf(StackOverflowError.class);
+        cache.getOrRotate(TOKEN_HASH, DEVICE_ID, rotation());
+
+        assertThat(rotations).hasValue(1);
+    }
+
+    @Test
+    void zero_window_always_rotates() {
+        RefreshGraceCache cache = newCache(Duration.ZERO);
+
+        cache.getOrRotate(TOKEN_HASH, DEVICE_ID, rotation());
+        cache.getOrRotate(TOKEN_HASH, DEVICE_ID, rotation());
+
+        assertThat(rotations).hasValue(2);
+        assertThat(cache.isWithinGraceWindow(Instant.now(), Instant.now())).isFalse();
+    }
+
+    @Test
+    void grace_window_is_measured_from_revocation() {
+        RefreshGraceCache cache = newCache(Duration.ofSeconds(10));
+        Instant revokedAt = Instant.parse("2026-01-01T00:00:00Z");
+
+        assertThat(cache.isWithinGraceWindow(revokedAt, revokedAt.plusSeconds(9))).isTrue();
+        assertThat(cache.isWithinGraceWindow(revokedAt, revokedAt.plusSeconds(10))).isFalse();
+    }
+}
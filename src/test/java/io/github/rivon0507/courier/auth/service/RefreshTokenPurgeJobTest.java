@@ -0,0 +1,64 @@
+package io.github.rivon0507.courier.auth.service;
+
+import io.github.rivon0507.courier.auth.domain.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenPurgeJobTest {
+
+    private RefreshTokenRepository refreshTokenRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private RefreshTokenPurgeJob job;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        var properties = new RefreshTokenPurgeProperties(true, Duration.ofHours(1), Duration.ofDays(7), 2);
+        job = new RefreshTokenPurgeJob(refreshTokenRepository, properties, meterRegistry);
+    }
+
+    @Test
+    void deletes_in_batches_until_a_batch_comes_back_short() {
+        when(refreshTokenRepository.deletePurgeable(any(Instant.class), eq(2))).thenReturn(2, 2, 1);
+
+        assertThat(job.purge()).isEqualTo(5);
+
+        verify(refreshTokenRepository, times(3)).deletePurgeable(any(Instant.class), eq(2));
+        assertThat(meterRegistry.get("auth.refresh_tokens.purged").counter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("auth.refresh_tokens.purge").timer().count()).isOne();
+    }
+
+    @Test
+    void failed_run_still_records_its_duration_and_the_committed_batches() {
+        when(refreshTokenRepository.deletePurgeable(any(Instant.class), eq(2)))
+                .thenReturn(2)
+                .thenThrow(new QueryTimeoutException("canceling statement due to statement timeout"));
+
+        assertThatThrownBy(() -> job.purge()).isInstanceOf(QueryTimeoutException.class);
+
+        assertThat(meterRegistry.get("auth.refresh_tokens.purged").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("auth.refresh_tokens.purge").timer().count()).isOne();
+    }
+
+    @Test
+    void horizon_is_the_retention_before_now() {
+        Instant before = Instant.now().minus(Duration.ofDays(7));
+        job.purge();
+        Instant after = Instant.now().minus(Duration.ofDays(7));
+
+        verify(refreshTokenRepository).deletePurgeable(
+                argThat(horizon -> !horizon.isBefore(before) && !horizon.isAfter(after)), eq(2));
+    }
+}
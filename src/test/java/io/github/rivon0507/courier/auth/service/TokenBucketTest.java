@@ -0,0 +1,62 @@
+package io.github.rivon0507.courier.auth.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    @Test
+    void allows_a_burst_of_capacity_then_asks_to_wait_one_refill() {
+        TokenBucket bucket = new TokenBucket(new AuthRateLimitProperties.Bucket(3, Duration.ofSeconds(1)), 0);
+
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void refills_one_token_per_interval() {
+        TokenBucket bucket = new TokenBucket(new AuthRateLimitProperties.Bucket(2, Duration.ofSeconds(1)), 0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+
+        assertThat(bucket.tryConsume(SECOND / 2)).isEqualTo(SECOND / 2);
+        assertThat(bucket.tryConsume(SECOND)).isZero();
+        assertThat(bucket.tryConsume(SECOND)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void idle_time_does_not_grow_the_burst_beyond_capacity() {
+        TokenBucket bucket = new TokenBucket(new AuthRateLimitProperties.Bucket(2, Duration.ofSeconds(1)), 0);
+
+        long later = 60 * SECOND;
+        assertThat(bucket.tryConsume(later)).isZero();
+        assertThat(bucket.tryConsume(later)).isZero();
+        assertThat(bucket.tryConsume(later)).isPositive();
+    }
+
+    @Test
+    void concurrent_consumers_never_take_more_than_capacity() {
+        TokenBucket bucket = new TokenBucket(new AuthRateLimitProperties.Bucket(100, Duration.ofHours(1)), 0);
+        AtomicInteger granted = new AtomicInteger();
+
+        CompletableFuture.allOf(IntStream.range(0, 8)
+                .mapToObj(t -> CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        if (bucket.tryConsume(0) == 0) granted.incrementAndGet();
+                    }
+                }))
+                .toArray(CompletableFuture[]::new)).join();
+
+        assertThat(granted).hasValue(100);
+    }
+}
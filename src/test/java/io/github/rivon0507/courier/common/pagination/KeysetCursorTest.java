@@ -0,0 +1,59 @@
+package io.github.rivon0507.courier.common.pagination;
+
+import io.github.rivon0507.courier.common.web.error.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void encoded_cursor_decodes_to_the_same_position() {
+        KeysetCursor cursor = new KeysetCursor(LocalDate.of(2025, 12, 25), 4242L);
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void encoded_cursor_is_url_safe() {
+        String encoded = new KeysetCursor(LocalDate.of(2025, 12, 25), Long.MAX_VALUE).encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not base64!", "bm8tc2VwYXJhdG9y", "MjAyNS0xMy0wMTox", "MjAyNS0xMi0yNTphYmM"})
+    void malformed_cursor_is_rejected(String cursor) {
+        assertThatThrownBy(() -> KeysetCursor.decode(cursor)).isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void extra_row_becomes_the_next_cursor_and_is_not_returned() {
+        List<LocalDate> rows = List.of(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2), LocalDate.of(2025, 1, 3));
+
+        CursorPagedResponse<LocalDate> page = CursorPagedResponse.fromRows(
+                rows, 2, new SortInfo("date", SortInfo.Direction.ASC),
+                date -> new KeysetCursor(date, date.getDayOfMonth()), Function.identity());
+
+        assertThat(page._items()).containsExactly(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2));
+        assertThat(KeysetCursor.decode(page._page().nextCursor()))
+                .isEqualTo(new KeysetCursor(LocalDate.of(2025, 1, 2), 2));
+    }
+
+    @Test
+    void last_page_has_no_next_cursor() {
+        CursorPagedResponse<LocalDate> page = CursorPagedResponse.fromRows(
+                List.of(LocalDate.of(2025, 1, 1)), 2, new SortInfo("date", SortInfo.Direction.ASC),
+                date -> new KeysetCursor(date, 1), Function.identity());
+
+        assertThat(page._items()).hasSize(1);
+        assertThat(page._page().nextCursor()).isNull();
+    }
+}
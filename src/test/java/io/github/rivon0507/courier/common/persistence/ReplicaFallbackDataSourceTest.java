@@ -0,0 +1,81 @@
+package io.github.rivon0507.courier.common.persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class ReplicaFallbackDataSourceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Duration COOLDOWN = Duration.ofSeconds(10);
+
+    private DataSource replica;
+    private DataSource primary;
+    private Clock clock;
+    private ReplicaFallbackDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        replica = mock(DataSource.class);
+        primary = mock(DataSource.class);
+        clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(NOW);
+        dataSource = new ReplicaFallbackDataSource(replica, primary, COOLDOWN, clock);
+    }
+
+    @Test
+    void hands_out_replica_connections() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(replica.getConnection()).thenReturn(connection);
+
+        assertThat(dataSource.getConnection()).isSameAs(connection);
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void falls_back_to_the_primary_when_the_replica_is_unavailable() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(replica.getConnection()).thenThrow(new SQLTransientConnectionException("replica - Connection is not available"));
+        when(primary.getConnection()).thenReturn(connection);
+
+        assertThat(dataSource.getConnection()).isSameAs(connection);
+    }
+
+    @Test
+    void fails_when_both_are_unavailable() throws SQLException {
+        when(replica.getConnection()).thenThrow(new SQLTransientConnectionException("replica"));
+        when(primary.getConnection()).thenThrow(new SQLTransientConnectionException("primary"));
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("primary");
+    }
+
+    @Test
+    void reads_go_straight_to_the_primary_during_the_cooldown() throws SQLException {
+        Connection replicaConnection = mock(Connection.class);
+        Connection primaryConnection = mock(Connection.class);
+        when(replica.getConnection())
+                .thenThrow(new SQLTransientConnectionException("replica - Connection is not available"))
+                .thenReturn(replicaConnection);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        dataSource.getConnection();
+        when(clock.instant()).thenReturn(NOW.plus(COOLDOWN).minusMillis(1));
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        verify(replica, times(1)).getConnection();
+
+        when(clock.instant()).thenReturn(NOW.plus(COOLDOWN));
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+        verify(replica, times(2)).getConnection();
+    }
+}
@@ -0,0 +1,153 @@
+package io.github.rivon0507.courier.common.service;
+
+import io.github.rivon0507.courier.common.persistence.WorkspaceRepository;
+import io.github.rivon0507.courier.common.web.error.WorkspaceNotFoundException;
+import io.github.rivon0507.courier.security.WorkspaceClaimVerifier;
+import io.github.rivon0507.courier.security.configuration.JwtProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class WorkspaceOwnershipServiceTest {
+
+    private WorkspaceRepository workspaceRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private WorkspaceOwnershipService service;
+
+    @BeforeEach
+    void setUp() {
+        workspaceRepository = mock(WorkspaceRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        service = newService(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void owner_is_looked_up_once_then_served_from_cache() {
+        when(workspaceRepository.findOwnerIdById(1L)).thenReturn(Optional.of(7L));
+
+        service.ensureWorkspaceBelongsToUser(1L, 7L);
+        service.ensureWorkspaceBelongsToUser(1L, 7L);
+
+        verify(workspaceRepository, times(1)).findOwnerIdById(1L);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "workspace.ownership").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void workspace_owned_by_someone_else_throws() {
+        when(workspaceRepository.findOwnerIdById(1L)).thenReturn(Optional.of(7L));
+
+        assertThatThrownBy(() -> service.ensureWorkspaceBelongsToUser(1L, 8L))
+                .isInstanceOf(WorkspaceNotFoundException.class);
+    }
+
+    @Test
+    void unknown_workspace_throws_and_is_not_cached() {
+        when(workspaceRepository.findOwnerIdById(1L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.ensureWorkspaceBelongsToUser(1L, 7L))
+                .isInstanceOf(WorkspaceNotFoundException.class);
+        assertThatThrownBy(() -> service.ensureWorkspaceBelongsToUser(1L, 7L))
+                .isInstanceOf(WorkspaceNotFoundException.class);
+
+        verify(workspaceRepository, times(2)).findOwnerIdById(1L);
+    }
+
+    @Test
+    void evicted_workspace_is_looked_up_again() {
+        when(workspaceRepository.findOwnerIdById(1L)).thenReturn(Optional.of(7L), Optional.of(8L));
+
+        service.ensureWorkspaceBelongsToUser(1L, 7L);
+        service.evict(1L);
+
+        service.ensureWorkspaceBelongsToUser(1L, 8L);
+        verify(workspaceRepository, times(2)).findOwnerIdById(1L);
+    }
+
+    @Test
+    void owner_cached_before_commit_is_evicted_again_after_it() {
+        when(workspaceRepository.findOwnerIdById(1L)).thenReturn(Optional.of(7L), Optional.of(8L));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.evict(1L);
+            // A concurrent check reading the owner before the transfer is committed
+            service.ensureWorkspaceBelongsToUser(1L, 7L);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        service.ensureWorkspaceBelongsToUser(1L, 8L);
+        verify(workspaceRepository, times(2)).findOwnerIdById(1L);
+    }
+
+    @Test
+    void workspace_listed_in_the_token_is_granted_without_lookup() {
+        authenticate(7L, List.of(1L));
+
+        service.ensureWorkspaceBelongsToUser(1L, 7L);
+
+        verifyNoInteractions(workspaceRepository);
+    }
+
+    @Test
+    void workspace_created_after_token_issuance_falls_back_to_lookup() {
+        authenticate(7L, List.of(1L));
+        when(workspaceRepository.findOwnerIdById(2L)).thenReturn(Optional.of(7L));
+
+        service.ensureWorkspaceBelongsToUser(2L, 7L);
+
+        verify(workspaceRepository).findOwnerIdById(2L);
+    }
+
+    @Test
+    void workspace_missing_from_the_token_throws_when_fallback_is_disabled() {
+        service = newService(false);
+        authenticate(7L, List.of(1L));
+
+        assertThatThrownBy(() -> service.ensureWorkspaceBelongsToUser(2L, 7L))
+                .isInstanceOf(WorkspaceNotFoundException.class);
+        verifyNoInteractions(workspaceRepository);
+    }
+
+    private WorkspaceOwnershipService newService(boolean claimFallback) {
+        return new WorkspaceOwnershipService(
+                workspaceRepository,
+                new WorkspaceClaimVerifier(),
+                new JwtProperties(null, null, SignatureAlgorithm.RS256, "courier", Duration.ofMinutes(15), claimFallback),
+                new WorkspaceOwnershipCacheProperties(100, Duration.ofMinutes(10)),
+                meterRegistry
+        );
+    }
+
+    private static void authenticate(long userId, List<Long> workspaceIds) {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "none")
+                .claim("userId", userId)
+                .claim("workspaces", workspaceIds)
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.rivon0507.courier.common.web.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final Duration FAST = Duration.ofMillis(10);
+    private static final Duration SLOW = Duration.ofSeconds(1);
+
+    private static AdaptiveConcurrencyLimit newLimit(int initialLimit, int maxQueued, Duration queueTimeout) {
+        return new AdaptiveConcurrencyLimit(new AdmissionControlProperties(
+                true, initialLimit, 2, 10, Duration.ofMillis(500), 0.5, maxQueued, queueTimeout, Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void slow_requests_halve_the_limit_down_to_the_minimum() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = newLimit(8, 0, Duration.ZERO);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limit.acquire()).isTrue();
+            limit.release(SLOW, false);
+        }
+
+        assertThat(limit.limit()).isEqualTo(2);
+    }
+
+    @Test
+    void server_errors_lower_the_limit() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = newLimit(8, 0, Duration.ZERO);
+
+        limit.acquire();
+        limit.release(FAST, true);
+
+        assertThat(limit.limit()).isEqualTo(4);
+    }
+
+    @Test
+    void fast_requests_grow_the_limit_only_while_it_is_in_use() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = newLimit(4, 0, Duration.ZERO);
+
+        for (int i = 0; i < 20; i++) {
+            limit.acquire();
+            limit.release(FAST, false);
+        }
+        assertThat(limit.limit()).as("A single request at a time does not use the limit").isEqualTo(4);
+
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < limit.limit(); i++) limit.acquire();
+            int held = limit.inFlight();
+            for (int i = 0; i < held; i++) limit.release(FAST, false);
+        }
+        assertThat(limit.limit()).isGreaterThan(4).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void saturated_limit_rejects_when_the_queue_is_full() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = newLimit(2, 0, Duration.ofSeconds(1));
+
+        assertThat(limit.acquire()).isTrue();
+        assertThat(limit.acquire()).isTrue();
+        assertThat(limit.acquire()).isFalse();
+    }
+
+    @Test
+    void queued_request_is_admitted_when_a_slot_is_released() throws Exception {
+        AdaptiveConcurrencyLimit limit = newLimit(2, 1, Duration.ofSeconds(5));
+        limit.acquire();
+        limit.acquire();
+
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limit.acquire();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (limit.queued() == 0) Thread.onSpinWait();
+        limit.release(FAST, false);
+
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void queued_request_is_rejected_after_the_timeout() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = newLimit(2, 1, Duration.ofMillis(20));
+        limit.acquire();
+        limit.acquire();
+
+        assertThat(limit.acquire()).isFalse();
+        assertThat(limit.queued()).isZero();
+    }
+
+    @Test
+    void counts_only_the_requests_that_waited() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = newLimit(1, 1, Duration.ofMillis(20));
+
+        limit.acquire();
+        assertThat(limit.waited()).isZero();
+
+        limit.acquire();
+        assertThat(limit.waited()).isOne();
+    }
+}
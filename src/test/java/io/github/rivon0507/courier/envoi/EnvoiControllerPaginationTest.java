@@ -3,6 +3,7 @@ package io.github.rivon0507.courier.envoi;
 import io.github.rivon0507.courier.common.pagination.PageInfo;
 import io.github.rivon0507.courier.common.pagination.PagedResponse;
 import io.github.rivon0507.courier.common.pagination.SortInfo;
+import io.github.rivon0507.courier.common.pagination.TotalMode;
 import io.github.rivon0507.courier.envoi.api.EnvoiResponse;
 import io.github.rivon0507.courier.envoi.service.EnvoiService;
 import org.junit.jupiter.api.Test;
@@ -38,7 +39,7 @@ public class EnvoiControllerPaginationTest {
     void noPageNumber_defaultsToPage0() throws Exception {
         long workspaceId = 1L;
 
-        when(envoiService.getPage(any(Pageable.class), eq(workspaceId), any()))
+        when(envoiService.getPage(any(Pageable.class), eq(TotalMode.EXACT), eq(workspaceId), any()))
                 .thenReturn(null);
 
         mockMvc.perform(get("/workspaces/1/envois", workspaceId))
@@ -52,7 +53,7 @@ public class EnvoiControllerPaginationTest {
     void noPageSize_defaultsToSize10() throws Exception {
         long workspaceId = 1L;
 
-        when(envoiService.getPage(any(Pageable.class), eq(workspaceId), any()))
+        when(envoiService.getPage(any(Pageable.class), eq(TotalMode.EXACT), eq(workspaceId), any()))
                 .thenReturn(null);
 
         mockMvc.perform(get("/workspaces/1/envois", workspaceId))
@@ -66,7 +67,7 @@ public class EnvoiControllerPaginationTest {
     void noSortKey_defaultsToSortByDateEnvoi() throws Exception {
         long workspaceId = 1L;
 
-        when(envoiService.getPage(any(Pageable.class), eq(workspaceId), any()))
+        when(envoiService.getPage(any(Pageable.class), eq(TotalMode.EXACT), eq(workspaceId), any()))
                 .thenReturn(null);
 
         mockMvc.perform(get("/workspaces/1/envois", workspaceId))
@@ -82,7 +83,7 @@ public class EnvoiControllerPaginationTest {
     void noSortDirection_defaultsToAscending() throws Exception {
         long workspaceId = 1L;
 
-        when(envoiService.getPage(any(Pageable.class), eq(workspaceId), any()))
+        when(envoiService.getPage(any(Pageable.class), eq(TotalMode.EXACT), eq(workspaceId), any()))
                 .thenReturn(null);
 
         mockMvc.perform(get("/workspaces/1/envois", workspaceId))
@@ -99,7 +100,7 @@ public class EnvoiControllerPaginationTest {
     void getPage_returnsPagedResponseShape_withItems() throws Exception {
         long workspaceId = 1L;
 
-        when(envoiService.getPage(any(Pageable.class), eq(workspaceId), any())).thenAnswer(invocation -> {
+        when(envoiService.getPage(any(Pageable.class), eq(TotalMode.EXACT), eq(workspaceId), any())).thenAnswer(invocation -> {
             Pageable p = invocation.getArgument(0, Pageable.class);
             Sort.Order order = p.getSort().stream().findFirst().orElseThrow();
 
@@ -120,10 +121,61 @@ public class EnvoiControllerPaginationTest {
                 .andExpect(jsonPath("$._sort.direction").value("ASC"));
     }
 
+    @Test
+    void withTotalFalse_listsWithoutCounting() throws Exception {
+        long workspaceId = 1L;
+
+        mockMvc.perform(get("/workspaces/1/envois").param("withTotal", "false"))
+                .andExpect(status().isOk());
+
+        verify(envoiService).getPage(any(Pageable.class), eq(TotalMode.NONE), eq(workspaceId), any());
+        verify(envoiService, never()).getPage(any(), eq(TotalMode.EXACT), any(), any());
+    }
+
+    @Test
+    void withTotalEstimate_listsWithEstimatedTotal() throws Exception {
+        long workspaceId = 1L;
+
+        mockMvc.perform(get("/workspaces/1/envois").param("withTotal", "estimate"))
+                .andExpect(status().isOk());
+
+        verify(envoiService).getPage(any(Pageable.class), eq(TotalMode.ESTIMATE), eq(workspaceId), any());
+    }
+
+    @Test
+    void unknownWithTotal_returns400() throws Exception {
+        mockMvc.perform(get("/workspaces/1/envois").param("withTotal", "maybe"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(envoiService);
+    }
+
+    @Test
+    void cursorParam_switchesToCursorMode_withDefaultSize10() throws Exception {
+        long workspaceId = 1L;
+
+        when(envoiService.getCursorPage(any(), anyInt(), eq(workspaceId), any()))
+                .thenReturn(null);
+
+        mockMvc.perform(get("/workspaces/1/envois").param("cursor", ""))
+                .andExpect(status().isOk());
+
+        verify(envoiService).getCursorPage(eq(""), eq(10), eq(workspaceId), any());
+        verify(envoiService, never()).getPage(any(), any(), any(), any());
+    }
+
+    @Test
+    void cursorMode_rejectsPagesLargerThan100() throws Exception {
+        mockMvc.perform(get("/workspaces/1/envois").param("cursor", "").param("size", "101"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(envoiService);
+    }
+
 
     private Pageable capturePageable(long workspaceId) {
         ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
-        verify(envoiService).getPage(captor.capture(), eq(workspaceId), any());
+        verify(envoiService).getPage(captor.capture(), eq(TotalMode.EXACT), eq(workspaceId), any());
         return captor.getValue();
     }
 }
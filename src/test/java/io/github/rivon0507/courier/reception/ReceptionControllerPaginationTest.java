@@ -3,6 +3,7 @@ package io.github.rivon0507.courier.reception;
 import io.github.rivon0507.courier.common.pagination.PageInfo;
 import io.github.rivon0507.courier.common.pagination.PagedResponse;
 import io.github.rivon0507.courier.common.pagination.SortInfo;
+import io.github.rivon0507.courier.common.pagination.TotalMode;
 import io.github.rivon0507.courier.reception.api.ReceptionResponse;
 import io.github.rivon0507.courier.reception.service.ReceptionService;
 import org.junit.jupiter.api.Test;
@@ -38,7 +39,7 @@ public class ReceptionControllerPaginationTest {
     void noPageNumber_defaultsToPage0() throws Exception {
         long workspaceId = 1L;
 
-        when(receptionService.getPage(any(Pageable.class), eq(workspaceId), any()))
+        when(receptionService.getPage(any(Pageable.class), eq(TotalMode.EXACT), eq(workspaceId), any()))
                 .thenReturn(null);
 
         mockMvc.perform(get("/workspaces/1/receptions", workspaceId))
@@ -52,7 +53,7 @@ public class ReceptionControllerPaginationTest {
     void noPageSize_defaultsToSize10() throws Exception {
         long workspaceId = 1L;
 
-        when(receptionService.getPage(any(Pageable.class), eq(workspaceId), any()))
+        when(receptionService.getPage(any(Pageable.class), eq(TotalMode.EXACT), eq(workspaceId), any()))
                 .thenReturn(null);
 
         mockMvc.perform(get("/workspaces/1/receptions", workspaceId))
@@ -66,7 +67,7 @@ public class ReceptionControllerPaginationTest {
     void noSortKey_defaultsToSortByDateReception() throws Exception {
         long workspaceId = 1L;
 
-        when(receptionService.getPage(any(Pageable.class), eq(workspaceId), any()))
+        when(receptionService.getPage(any(Pageable.class), eq(TotalMode.EXACT), eq(workspaceId), any()))
                 .thenReturn(null);
 
         mockMvc.perform(get("/workspaces/1/receptions", workspaceId))
@@ -82,7 +83,7 @@ public class ReceptionControllerPaginationTest {
     void noSortDirection_defaultsToAscending() throws Exception {
         long workspaceId = 1L;
 
-        when(receptionService.getPage(any(Pageable.class), eq(workspaceId), any()))
+        when(receptionService.getPage(any(Pageable.class), eq(TotalMode.EXACT), eq(workspaceId), any()))
                 .thenReturn(null);
 
         mockMvc.perform(get("/workspaces/1/receptions", workspaceId))
@@ -99,7 +100,7 @@ public class ReceptionControllerPaginationTest {
     void getPage_returnsPagedResponseShape_withItems() throws Exception {
         long workspaceId = 1L;
 
-        when(receptionService.getPage(any(Pageable.class), eq(workspaceId), any())).thenAnswer(invocation -> {
+        when(receptionService.getPage(any(Pageable.class), eq(TotalMode.EXACT), eq(workspaceId), any())).thenAnswer(invocation -> {
             Pageable p = invocation.getArgument(0, Pageable.class);
             Sort.Order order = p.getSort().stream().findFirst().orElseThrow();
 
@@ -120,10 +121,61 @@ public class ReceptionControllerPaginationTest {
                 .andExpect(jsonPath("$._sort.direction").value("ASC"));
     }
 
+    @Test
+    void withTotalFalse_listsWithoutCounting() throws Exception {
+        long workspaceId = 1L;
+
+        mockMvc.perform(get("/workspaces/1/receptions").param("withTotal", "false"))
+                .andExpect(status().isOk());
+
+        verify(receptionService).getPage(any(Pageable.class), eq(TotalMode.NONE), eq(workspaceId), any());
+        verify(receptionService, never()).getPage(any(), eq(TotalMode.EXACT), any(), any());
+    }
+
+    @Test
+    void withTotalEstimate_listsWithEstimatedTotal() throws Exception {
+        long workspaceId = 1L;
+
+        mockMvc.perform(get("/workspaces/1/receptions").param("withTotal", "estimate"))
+                .andExpect(status().isOk());
+
+        verify(receptionService).getPage(any(Pageable.class), eq(TotalMode.ESTIMATE), eq(workspaceId), any());
+    }
+
+    @Test
+    void unknownWithTotal_returns400() throws Exception {
+        mockMvc.perform(get("/workspaces/1/receptions").param("withTotal", "maybe"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(receptionService);
+    }
+
+    @Test
+    void cursorParam_switchesToCursorMode_withDefaultSize10() throws Exception {
+        long workspaceId = 1L;
+
+        when(receptionService.getCursorPage(any(), anyInt(), eq(workspaceId), any()))
+                .thenReturn(null);
+
+        mockMvc.perform(get("/workspaces/1/receptions").param("cursor", ""))
+                .andExpect(status().isOk());
+
+        verify(receptionService).getCursorPage(eq(""), eq(10), eq(workspaceId), any());
+        verify(receptionService, never()).getPage(any(), any(), any(), any());
+    }
+
+    @Test
+    void cursorMode_rejectsPagesLargerThan100() throws Exception {
+        mockMvc.perform(get("/workspaces/1/receptions").param("cursor", "").param("size", "101"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(receptionService);
+    }
+
 
     private Pageable capturePageable(long workspaceId) {
         ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
-        verify(receptionService).getPage(captor.capture(), eq(workspaceId), any());
+        verify(receptionService).getPage(captor.capture(), eq(TotalMode.EXACT), eq(workspaceId), any());
         return captor.getValue();
     }
 }
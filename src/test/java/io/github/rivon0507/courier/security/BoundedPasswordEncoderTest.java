@@ -0,0 +1,101 @@
+package io.github.rivon0507.courier.security;
+
+import io.github.rivon0507.courier.common.web.error.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordEncoder delegate = mock(PasswordEncoder.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ThreadPoolExecutor executor;
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.close();
+    }
+
+    private BoundedPasswordEncoder newEncoder(int queueCapacity, Duration timeout) {
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity));
+        return new BoundedPasswordEncoder(delegate, executor, timeout, meterRegistry);
+    }
+
+    private void awaitQueueSize(int size, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (executor.getQueue().size() != size) {
+            assertThat(deadline - System.nanoTime()).as("time left to reach a queue size of %d", size).isPositive();
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void delegates_on_the_executor_and_records_the_operation() {
+        encoder = newEncoder(1, Duration.ofSeconds(5));
+        when(delegate.matches("password", "hash")).thenAnswer(invocation -> {
+            assertThat(Thread.currentThread().getName()).startsWith("pool-");
+            return true;
+        });
+
+        assertThat(encoder.matches("password", "hash")).isTrue();
+        assertThat(meterRegistry.get("security.password.operation").tag("operation", "matches").timer().count())
+                .isOne();
+    }
+
+    @Test
+    void operation_waiting_longer_than_the_timeout_is_abandoned() {
+        encoder = newEncoder(1, Duration.ofMillis(50));
+        when(delegate.encode("password")).thenAnswer(invocation -> {
+            release.await();
+            return "hash";
+        });
+
+        assertThatThrownBy(() -> encoder.encode("password")).isInstanceOf(ServiceOverloadedException.class);
+    }
+
+    @Test
+    void operation_is_rejected_when_the_queue_is_full() throws Exception {
+        encoder = newEncoder(1, Duration.ofSeconds(5));
+        when(delegate.encode("password")).thenAnswer(invocation -> {
+            release.await();
+            return "hash";
+        });
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            callers.submit(() -> encoder.encode("password"));
+            callers.submit(() -> encoder.encode("password"));
+            // one running, one queued
+            verify(delegate, timeout(1_000)).encode("password");
+            awaitQueueSize(1, Duration.ofSeconds(1));
+
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> encoder.encode("password")).isInstanceOf(ServiceOverloadedException.class);
+            // rejected right away rather than after waiting for the timeout
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        } finally {
+            release.countDown();
+            callers.shutdown();
+        }
+    }
+
+    @Test
+    void delegate_exceptions_are_rethrown_as_is() {
+        encoder = newEncoder(1, Duration.ofSeconds(5));
+        when(delegate.matches("password", "hash")).thenThrow(new IllegalArgumentException("bad hash"));
+
+        assertThatThrownBy(() -> encoder.matches("password", "hash"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("bad hash");
+    }
+}
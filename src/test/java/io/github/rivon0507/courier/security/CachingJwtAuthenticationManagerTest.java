@@ -0,0 +1,107 @@
+package io.github.rivon0507.courier.security;
+
+import io.github.rivon0507.courier.security.configuration.JwtCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class CachingJwtAuthenticationManagerTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private JwtDecoder decoder;
+    private CachingJwtAuthenticationManager manager;
+
+    @BeforeEach
+    void setUp() {
+        decoder = mock(JwtDecoder.class);
+        manager = new CachingJwtAuthenticationManager(
+                decoder,
+                jwt -> new JwtAuthenticationToken(jwt, List.of(new SimpleGrantedAuthority("ROLE_USER")), jwt.getSubject()),
+                new JwtCacheProperties(true, 100),
+                new SimpleMeterRegistry(),
+                nanos::get
+        );
+    }
+
+    private static Jwt jwt(String token, Duration expiresIn) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("user@example.com")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plus(expiresIn))
+                .build();
+    }
+
+    private static BearerTokenAuthenticationToken bearer(String token, Object details) {
+        BearerTokenAuthenticationToken bearer = new BearerTokenAuthenticationToken(token);
+        bearer.setDetails(details);
+        return bearer;
+    }
+
+    @Test
+    void token_is_verified_once_then_served_from_cache_with_the_request_details() {
+        when(decoder.decode("token")).thenReturn(jwt("token", Duration.ofMinutes(15)));
+
+        Authentication first = manager.authenticate(bearer("token", "first request"));
+        Authentication second = manager.authenticate(bearer("token", "second request"));
+
+        verify(decoder, times(1)).decode("token");
+        assertThat(second).isInstanceOf(JwtAuthenticationToken.class).isNotSameAs(first);
+        assertThat(second.getName()).isEqualTo("user@example.com");
+        assertThat(second.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_USER");
+        assertThat(second.getDetails()).isEqualTo("second request");
+        assertThat(((JwtAuthenticationToken) second).getToken()).isSameAs(((JwtAuthenticationToken) first).getToken());
+    }
+
+    @Test
+    void token_is_verified_again_once_expired() {
+        when(decoder.decode("token")).thenReturn(jwt("token", Duration.ofMinutes(1)));
+
+        manager.authenticate(bearer("token", null));
+        nanos.addAndGet(Duration.ofSeconds(61).toNanos());
+        manager.authenticate(bearer("token", null));
+
+        verify(decoder, times(2)).decode("token");
+    }
+
+    @Test
+    void other_tokens_are_verified_separately() {
+        when(decoder.decode("a")).thenReturn(jwt("a", Duration.ofMinutes(15)));
+        when(decoder.decode("b")).thenReturn(jwt("b", Duration.ofMinutes(15)));
+
+        manager.authenticate(bearer("a", null));
+        manager.authenticate(bearer("b", null));
+
+        verify(decoder).decode("a");
+        verify(decoder).decode("b");
+    }
+
+    @Test
+    void rejected_token_is_not_cached() {
+        when(decoder.decode("forged")).thenThrow(new BadJwtException("bad signature"));
+
+        assertThatThrownBy(() -> manager.authenticate(bearer("forged", null)))
+                .isInstanceOf(InvalidBearerTokenException.class);
+        assertThatThrownBy(() -> manager.authenticate(bearer("forged", null)))
+                .isInstanceOf(InvalidBearerTokenException.class);
+
+        verify(decoder, times(2)).decode("forged");
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.rivon0507.courier.security;
+
+import com.nimbusds.jose.jwk.JWK;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.*;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtKeysTest {
+
+    private static KeyPair rsaKeyPair() throws Exception {
+        KeyPairGenerator g = KeyPairGenerator.getInstance("RSA");
+        g.initialize(2048);
+        return g.generateKeyPair();
+    }
+
+    private static KeyPair ecKeyPair(String curve) throws Exception {
+        KeyPairGenerator g = KeyPairGenerator.getInstance("EC");
+        g.initialize(new ECGenParameterSpec(curve));
+        return g.generateKeyPair();
+    }
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+    }
+
+    private static String publicPem(KeyPair keyPair) {
+        return pem("PUBLIC KEY", keyPair.getPublic().getEncoded());
+    }
+
+    private static String keyPairPem(KeyPair keyPair) {
+        return publicPem(keyPair) + pem("PRIVATE KEY", keyPair.getPrivate().getEncoded());
+    }
+
+    private static String sign(JwtEncoder encoder, SignatureAlgorithm algorithm) {
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject("user@example.com")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build();
+        return encoder.encode(JwtEncoderParameters.from(JwsHeader.with(algorithm).build(), claims)).getTokenValue();
+    }
+
+    @Test
+    void es256_token_signed_with_key_pair_is_verified_with_public_key() throws Exception {
+        KeyPair keyPair = ecKeyPair("secp256r1");
+        JwtEncoder encoder = JwtKeys.encoder(JwtKeys.parse(SignatureAlgorithm.ES256, keyPairPem(keyPair)));
+        JwtDecoder decoder = JwtKeys.decoder(JwtKeys.parse(SignatureAlgorithm.ES256, publicPem(keyPair)));
+
+        Jwt jwt = decoder.decode(sign(encoder, SignatureAlgorithm.ES256));
+
+        assertThat(jwt.getSubject()).isEqualTo("user@example.com");
+        assertThat(jwt.getHeaders()).containsEntry("alg", "ES256");
+    }
+
+    @Test
+    void rs256_token_signed_with_key_pair_is_verified_with_public_key() throws Exception {
+        KeyPair keyPair = rsaKeyPair();
+        JwtEncoder encoder = JwtKeys.encoder(JwtKeys.parse(SignatureAlgorithm.RS256, keyPairPem(keyPair)));
+        JwtDecoder decoder = JwtKeys.decoder(JwtKeys.parse(SignatureAlgorithm.RS256, publicPem(keyPair)));
+
+        assertThat(decoder.decode(sign(encoder, SignatureAlgorithm.RS256)).getSubject()).isEqualTo("user@example.com");
+    }
+
+    @Test
+    void token_signed_with_another_algorithm_is_rejected() throws Exception {
+        KeyPair rsa = rsaKeyPair();
+        JwtEncoder rsaEncoder = JwtKeys.encoder(JwtKeys.parse(SignatureAlgorithm.RS256, keyPairPem(rsa)));
+        JwtDecoder ecDecoder = JwtKeys.decoder(JwtKeys.parse(SignatureAlgorithm.ES256, publicPem(ecKeyPair("secp256r1"))));
+
+        assertThatThrownBy(() -> ecDecoder.decode(sign(rsaEncoder, SignatureAlgorithm.RS256)))
+                .isInstanceOf(BadJwtException.class);
+    }
+
+    @Test
+    void key_not_matching_algorithm_is_refused_at_startup() throws Exception {
+        String rsaPem = publicPem(rsaKeyPair());
+        String p384Pem = publicPem(ecKeyPair("secp384r1"));
+
+        assertThatThrownBy(() -> JwtKeys.parse(SignatureAlgorithm.ES256, rsaPem))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> JwtKeys.parse(SignatureAlgorithm.ES256, p384Pem))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("P-384");
+    }
+
+    @Test
+    void encoder_requires_private_key() throws Exception {
+        JWK publicKey = JwtKeys.parse(SignatureAlgorithm.ES256, publicPem(ecKeyPair("secp256r1")));
+
+        assertThatThrownBy(() -> JwtKeys.encoder(publicKey)).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.rivon0507.courier.security;
+
+import io.github.rivon0507.courier.security.configuration.PasswordHashingProperties;
+import io.github.rivon0507.courier.security.configuration.PasswordHashingProperties.Algorithm;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordEncodersTest {
+
+    private static PasswordEncoder encoder(Algorithm algorithm, int bcryptStrength) {
+        return PasswordEncoders.create(new PasswordHashingProperties(
+                algorithm, bcryptStrength, Duration.ofMillis(250), 1, 1, Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void bcrypt_hash_with_lower_cost_is_upgraded() {
+        String weakHash = encoder(Algorithm.BCRYPT, 4).encode("password");
+        PasswordEncoder encoder = encoder(Algorithm.BCRYPT, 5);
+
+        assertThat(encoder.matches("password", weakHash)).isTrue();
+        assertThat(encoder.upgradeEncoding(weakHash)).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("password"))).isFalse();
+    }
+
+    @Test
+    void hash_of_another_algorithm_is_verified_then_upgraded() {
+        String bcryptHash = encoder(Algorithm.BCRYPT, 4).encode("password");
+        PasswordEncoder argon2 = encoder(Algorithm.ARGON2, 4);
+
+        assertThat(argon2.matches("password", bcryptHash)).isTrue();
+        assertThat(argon2.upgradeEncoding(bcryptHash)).isTrue();
+        assertThat(argon2.encode("password")).startsWith("{argon2@SpringSecurity_v5_8}");
+    }
+
+    @Test
+    void tuned_strength_stays_within_bounds() {
+        assertThat(PasswordEncoders.tuneBCryptStrength(Duration.ZERO)).isEqualTo(10);
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.rivon0507.courier.security;
+
+import io.github.rivon0507.courier.common.persistence.UserRepository;
+import io.github.rivon0507.courier.security.configuration.UserCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class UserPrincipalServiceTest {
+
+    private static final AppUserPrincipal PRINCIPAL =
+            new AppUserPrincipal(7L, "user@example.com", "User", "USER", "{bcrypt}hash", true, 3L);
+
+    private UserRepository userRepository;
+    private UserPrincipalService service;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        service = newService(true);
+    }
+
+    private UserPrincipalService newService(boolean enabled) {
+        return new UserPrincipalService(
+                userRepository, new UserCacheProperties(enabled, 100, Duration.ofMinutes(1)), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void principal_loaded_by_email_is_served_from_cache() {
+        when(userRepository.findPrincipalByEmail("user@example.com")).thenReturn(Optional.of(PRINCIPAL));
+
+        assertThat(service.findByEmail("user@example.com")).contains(PRINCIPAL);
+        assertThat(service.findByEmail("user@example.com")).contains(PRINCIPAL);
+
+        verify(userRepository, times(1)).findPrincipalByEmail("user@example.com");
+    }
+
+    @Test
+    void evicted_principal_is_loaded_again() {
+        when(userRepository.findPrincipalByEmail("user@example.com")).thenReturn(Optional.of(PRINCIPAL));
+        service.findByEmail("user@example.com");
+
+        service.evict(7L);
+        service.findByEmail("user@example.com");
+
+        verify(userRepository, times(2)).findPrincipalByEmail("user@example.com");
+    }
+
+    @Test
+    void principal_cached_before_commit_is_evicted_again_after_it() {
+        when(userRepository.findPrincipalByEmail("user@example.com")).thenReturn(Optional.of(PRINCIPAL));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.evict(7L);
+            // A concurrent login reading the row before the change is committed
+            service.findByEmail("user@example.com");
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        service.findByEmail("user@example.com");
+
+        verify(userRepository, times(2)).findPrincipalByEmail("user@example.com");
+    }
+
+    @Test
+    void unknown_users_are_not_cached() {
+        when(userRepository.findPrincipalByEmail("unknown@example.com")).thenReturn(Optional.empty());
+
+        assertThat(service.findByEmail("unknown@example.com")).isEmpty();
+        assertThat(service.findByEmail("unknown@example.com")).isEmpty();
+
+        verify(userRepository, times(2)).findPrincipalByEmail("unknown@example.com");
+    }
+
+    @Test
+    void disabled_cache_always_queries() {
+        service = newService(false);
+        when(userRepository.findPrincipalByEmail("user@example.com")).thenReturn(Optional.of(PRINCIPAL));
+
+        service.findByEmail("user@example.com");
+        service.findByEmail("user@example.com");
+
+        verify(userRepository, times(2)).findPrincipalByEmail("user@example.com");
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.rivon0507.courier.security;
+
+import io.github.rivon0507.courier.security.WorkspaceClaimVerifier.Verdict;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkspaceClaimVerifierTest {
+
+    private final WorkspaceClaimVerifier verifier = new WorkspaceClaimVerifier();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void listed_workspace_is_granted() {
+        authenticate(claims -> claims.claim("userId", 7L).claim("workspaces", List.of(1L, 2L)));
+
+        assertThat(verifier.verify(2L, 7L)).isEqualTo(Verdict.GRANTED);
+    }
+
+    @Test
+    void workspace_missing_from_the_claim_is_not_listed() {
+        authenticate(claims -> claims.claim("userId", 7L).claim("workspaces", List.of(1L)));
+
+        assertThat(verifier.verify(2L, 7L)).isEqualTo(Verdict.NOT_LISTED);
+    }
+
+    @Test
+    void token_without_workspaces_claim_is_not_listed() {
+        authenticate(claims -> claims.claim("userId", 7L));
+
+        assertThat(verifier.verify(1L, 7L)).isEqualTo(Verdict.NOT_LISTED);
+    }
+
+    @Test
+    void token_of_another_user_is_ignored() {
+        authenticate(claims -> claims.claim("userId", 8L).claim("workspaces", List.of(1L)));
+
+        assertThat(verifier.verify(1L, 7L)).isEqualTo(Verdict.NO_TOKEN);
+    }
+
+    @Test
+    void missing_authentication_yields_no_token() {
+        assertThat(verifier.verify(1L, 7L)).isEqualTo(Verdict.NO_TOKEN);
+    }
+
+    private static void authenticate(Consumer<Jwt.Builder> claims) {
+        Jwt.Builder builder = Jwt.withTokenValue("token").header("alg", "none").subject("user@example.com");
+        claims.accept(builder);
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(builder.build()));
+    }
+}